@@ -0,0 +1,85 @@
+package org.Simbot.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.Simbot.config.caffeine.CacheRegion;
+import org.Simbot.config.caffeine.CaffeineCacheConfig;
+import org.Simbot.plugins.rss.pixiv.entity.Pixiv;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ：ycvk
+ * @description ：CaffeineUtil#get(key, TypeReference) 命中时直接返回缓存对象, 对比原先每次命中都新建ObjectMapper并convertValue深拷贝
+ * @date ：2026/10/19 00:25
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CaffeineUtilBenchmark {
+
+    private static final String KEY = "pixivRank::daily";
+    private static final TypeReference<List<Pixiv>> TYPE = new TypeReference<>() {
+    };
+
+    //一次排行榜的条数
+    @Param({"50"})
+    private int size;
+
+    private CaffeineUtil caffeineUtil;
+
+    private ObjectMapper sharedMapper;
+
+    @Setup
+    public void setup() {
+        caffeineUtil = new CaffeineUtil(List.of(CacheRegion.builder()
+                .name(CaffeineCacheConfig.DEFAULT_REGION)
+                .maximumBytes(16 * 1024 * 1024)
+                .build()));
+        final List<Pixiv> rank = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rank.add(new Pixiv()
+                    .setTitle("#" + (i + 1) + " 作品标题")
+                    .setLink("https://www.pixiv.net/artworks/" + (100000000 + i))
+                    .setAuthor("作者" + i)
+                    .setReadNum(String.valueOf(10000 + i))
+                    .setCollectNum(String.valueOf(1000 + i))
+                    .setImgLink(List.of("https://i.pximg.net/img-original/img/" + i + "_p0.jpg",
+                            "https://i.pximg.net/img-original/img/" + i + "_p1.jpg")));
+        }
+        caffeineUtil.put(KEY, rank);
+        sharedMapper = new ObjectMapper();
+    }
+
+    /**
+     * 当前实现: 直接返回缓存对象
+     */
+    @Benchmark
+    public List<Pixiv> directReturn() {
+        return caffeineUtil.get(KEY, TYPE).orElseThrow();
+    }
+
+    /**
+     * 原先的实现: 每次命中都新建ObjectMapper并convertValue
+     */
+    @Benchmark
+    public List<Pixiv> convertWithNewMapper() {
+        final Object data = caffeineUtil.get(KEY, Object.class).orElseThrow();
+        return new ObjectMapper().convertValue(data, TYPE);
+    }
+
+    /**
+     * 复用同一个ObjectMapper时convertValue本身的开销
+     */
+    @Benchmark
+    public List<Pixiv> convertWithSharedMapper() {
+        final Object data = caffeineUtil.get(KEY, Object.class).orElseThrow();
+        return sharedMapper.convertValue(data, TYPE);
+    }
+}
@@ -0,0 +1,127 @@
+package org.Simbot.utils;
+
+import org.Simbot.utils.image.FontRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ：ycvk
+ * @description ：文生图每次渲染的字体开销: 字体注册表复用字体和字符宽度, 对比原先每次渲染都解析字体文件并用LineBreakMeasurer分行.
+ * 与程序运行时一样读取工作目录下的 cache/custom.ttf, 需在包含该文件的目录下运行
+ * @date ：2026/10/19 00:10
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageUtilBenchmark {
+
+    private static final String FONT_PATH = "cache/custom.ttf";
+    private static final float FONT_SIZE = 26;
+    private static final Canvas CANVAS = new Canvas();
+
+    @Param({"200", "2000"})
+    private int length;
+
+    private String text;
+
+    @Setup
+    public void setup() {
+        if (!new File(FONT_PATH).isFile()) {
+            throw new IllegalStateException("找不到字体文件 " + new File(FONT_PATH).getAbsolutePath());
+        }
+        final String sample = "文生图渲染测试 The quick brown fox jumps over the lazy dog. 中英文混排, 包含标点符号。\n";
+        final StringBuilder builder = new StringBuilder(length + sample.length());
+        while (builder.length() < length) {
+            builder.append(sample);
+        }
+        text = builder.substring(0, length);
+    }
+
+    /**
+     * 只取字体: 注册表命中
+     */
+    @Benchmark
+    public Font fontFromRegistry() {
+        return FontRegistry.get(FONT_PATH, FONT_SIZE).font();
+    }
+
+    /**
+     * 只取字体: 原先每次渲染都解析字体文件
+     */
+    @Benchmark
+    public Font fontFromFile() throws IOException, FontFormatException {
+        return Font.createFont(Font.TRUETYPE_FONT, new File(FONT_PATH)).deriveFont(FONT_SIZE);
+    }
+
+    /**
+     * 完整渲染: 当前实现
+     */
+    @Benchmark
+    public ByteArrayInputStream renderWithRegistry() {
+        return ImageUtil.createImage(text, 500);
+    }
+
+    /**
+     * 完整渲染: 原先的实现, 每次解析字体文件, 用LineBreakMeasurer分行, 用Canvas取度量
+     */
+    @Benchmark
+    public ByteArrayInputStream renderReloadingFont() throws IOException, FontFormatException {
+        final int maxWidth = 500;
+        final Font font = Font.createFont(Font.TRUETYPE_FONT, new File(FONT_PATH)).deriveFont(FONT_SIZE);
+        final FontMetrics fontMetrics = CANVAS.getFontMetrics(font);
+        final List<String> lines = splitWithMeasurer(text, font, maxWidth * 2);
+        final int width = maxWidth * 2 + 40;
+        final int height = (fontMetrics.getHeight() + 20) * lines.size() + 20;
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(width * height * 4);
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB);
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.BLACK);
+        graphics.setFont(font);
+        for (int i = 0; i < lines.size(); i++) {
+            graphics.drawString(lines.get(i), 20, 20 + (fontMetrics.getHeight() + 20) * i + fontMetrics.getAscent());
+        }
+        graphics.dispose();
+        ImageIO.write(image, "png", byteArrayOutputStream);
+        return new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
+    }
+
+    private static List<String> splitWithMeasurer(final String text, final Font font, final int maxWidth) {
+        final AttributedString attributedText = new AttributedString(text);
+        attributedText.addAttribute(TextAttribute.FONT, font);
+        final LineBreakMeasurer lineBreakMeasurer = new LineBreakMeasurer(attributedText.getIterator(), new FontRenderContext(null, true, true));
+        final List<String> lines = new ArrayList<>();
+        while (lineBreakMeasurer.getPosition() < text.length()) {
+            int endIndex = lineBreakMeasurer.nextOffset(maxWidth);
+            String line = text.substring(lineBreakMeasurer.getPosition(), endIndex);
+            final int newLineIndex = line.indexOf("\n");
+            if (newLineIndex != -1) {
+                endIndex = lineBreakMeasurer.getPosition() + newLineIndex + 1;
+                line = line.substring(0, newLineIndex);
+            }
+            lines.add(line);
+            lineBreakMeasurer.setPosition(endIndex);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,68 @@
+package org.Simbot.utils.image;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ：ycvk
+ * @description ：ImageScaler 与原先 getScaledInstance(SCALE_SMOOTH) 缩放方式的对比, 源图为解码jpg常见的TYPE_3BYTE_BGR
+ * @date ：2026/10/18 23:55
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageScalerBenchmark {
+
+    @Param({"1920x1080", "4000x3000"})
+    private String size;
+
+    @Param({"0.5", "0.3"})
+    private float scale;
+
+    private BufferedImage source;
+
+    @Setup
+    public void setup() {
+        final String[] wh = size.split("x");
+        final int width = Integer.parseInt(wh[0]);
+        final int height = Integer.parseInt(wh[1]);
+        source = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        //渐变加噪点, 避免纯色图片让两种算法都走捷径
+        final Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                final int r = (x * 255 / width + random.nextInt(16)) & 0xFF;
+                final int g = (y * 255 / height + random.nextInt(16)) & 0xFF;
+                final int b = random.nextInt(256);
+                source.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+    }
+
+    @Benchmark
+    public BufferedImage imageScaler() {
+        return ImageScaler.scale(source, scale);
+    }
+
+    /**
+     * 原先 AsyncHttpClientUtil 中的缩放方式
+     */
+    @Benchmark
+    public BufferedImage getScaledInstance() {
+        final int newWidth = (int) (source.getWidth() * scale);
+        final int newHeight = (int) (source.getHeight() * scale);
+        final Image scaledImage = source.getScaledInstance(newWidth, newHeight, Image.SCALE_SMOOTH);
+        final BufferedImage bufferedScaledImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_RGB);
+        final Graphics graphics = bufferedScaledImage.getGraphics();
+        graphics.drawImage(scaledImage, 0, 0, null);
+        graphics.dispose();
+        return bufferedScaledImage;
+    }
+}
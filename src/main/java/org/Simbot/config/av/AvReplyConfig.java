@@ -0,0 +1,46 @@
+package org.Simbot.config.av;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author ：ycvk
+ * @description ：/av 查询结果的回复方式配置, 读取 application.yml 中的 av.reply,
+ * 可设置默认方式并按群覆盖
+ * @date ：2026/10/18 20:10
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "av.reply")
+public class AvReplyConfig {
+
+    public enum ReplyMode {
+        /**
+         * 所有内容准备完毕后合并为一条转发消息发送
+         */
+        FORWARD,
+        /**
+         * 详情到手后立即发送文字摘要, 图片、播放地址和磁力链接各自完成后陆续发送
+         */
+        PROGRESSIVE
+    }
+
+    private ReplyMode defaultMode = ReplyMode.FORWARD;
+
+    //群号 -> 回复方式
+    private Map<String, ReplyMode> groupModes = new HashMap<>();
+
+    /**
+     * 获取群使用的回复方式
+     *
+     * @param groupId 群号
+     * @return 未单独配置时返回默认方式
+     */
+    public ReplyMode modeOf(final String groupId) {
+        return groupModes.getOrDefault(groupId, defaultMode);
+    }
+}
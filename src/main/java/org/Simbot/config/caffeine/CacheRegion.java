@@ -0,0 +1,31 @@
+package org.Simbot.config.caffeine;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * @author ：ycvk
+ * @description ：本地缓存区域声明, 每个区域是一个独立的caffeine缓存, 有自己的key空间、按字节计算的容量上限和过期时间.
+ * 在 CaffeineCacheConfig 中声明为bean, 通过 CaffeineUtil#region 使用
+ * @date ：2026/10/18 22:10
+ */
+@Getter
+@Builder
+@ToString
+public class CacheRegion {
+
+    //区域名, 即key的命名空间
+    private final String name;
+
+    //容量上限, 按 CacheWeigher 估算的字节数
+    private final long maximumBytes;
+
+    //默认过期时间, 写入时未单独指定时使用, 为null时不过期
+    private final Duration expireAfterWrite;
+
+    //写入时将List/Set/Map拷贝为不可修改的集合, 读取时直接返回同一个对象, 调用方无法修改缓存内容
+    private final boolean copyOnWrite;
+}
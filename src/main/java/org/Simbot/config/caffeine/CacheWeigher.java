@@ -0,0 +1,140 @@
+package org.Simbot.config.caffeine;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import jakarta.annotation.Nonnull;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * @author ：ycvk
+ * @description ：按估算的字节数计算缓存项的权重, 使一个大的缓存项(如整个页面)不会和许多小缓存项占用同样的容量.
+ * 估算只在写入时进行一次, 按对象图遍历: 字符串、数组、集合按内容计算, 自定义对象按字段反射计算,
+ * JDK内部的其他对象只计算对象头, 遍历的对象数有上限
+ * @date ：2026/10/18 22:15
+ */
+public class CacheWeigher implements Weigher<String, CacheDataWrapper> {
+
+    //对象头
+    private static final int OBJECT_HEADER = 16;
+    //引用
+    private static final int REFERENCE = 8;
+    //单个缓存项最多遍历的对象数, 超出后不再继续估算
+    private static final int MAX_VISITED = 100_000;
+
+    //每个类需要遍历的实例字段
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(@Nonnull final Class<?> type) {
+            final List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (final Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    try {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    } catch (final RuntimeException ignored) {
+                        //无法访问的字段只计算引用大小
+                    }
+                }
+            }
+            return fields.toArray(Field[]::new);
+        }
+    };
+
+    @Override
+    public int weigh(@Nonnull final String key, @Nonnull final CacheDataWrapper value) {
+        final long bytes = stringBytes(key) + OBJECT_HEADER + estimate(value.getData());
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    /**
+     * 估算对象占用的字节数
+     *
+     * @param object 对象
+     * @return 估算的字节数
+     */
+    public static long estimate(final Object object) {
+        return estimate(object, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private static long estimate(final Object object, final Set<Object> visited) {
+        if (object == null || visited.size() >= MAX_VISITED || !visited.add(object)) {
+            return 0;
+        }
+        if (object instanceof final String s) {
+            return stringBytes(s);
+        }
+        if (object instanceof Number || object instanceof Boolean || object instanceof Character || object instanceof Enum<?>) {
+            return OBJECT_HEADER;
+        }
+        final Class<?> type = object.getClass();
+        if (type.isArray()) {
+            final int length = Array.getLength(object);
+            final Class<?> component = type.getComponentType();
+            if (component.isPrimitive()) {
+                return OBJECT_HEADER + (long) length * primitiveSize(component);
+            }
+            long bytes = OBJECT_HEADER + (long) length * REFERENCE;
+            for (int i = 0; i < length; i++) {
+                bytes += estimate(Array.get(object, i), visited);
+            }
+            return bytes;
+        }
+        if (object instanceof final Collection<?> collection) {
+            long bytes = OBJECT_HEADER * 2 + (long) collection.size() * REFERENCE;
+            for (final Object element : collection) {
+                bytes += estimate(element, visited);
+            }
+            return bytes;
+        }
+        if (object instanceof final Map<?, ?> map) {
+            long bytes = OBJECT_HEADER * 3 + (long) map.size() * (OBJECT_HEADER + REFERENCE * 3);
+            for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                bytes += estimate(entry.getKey(), visited) + estimate(entry.getValue(), visited);
+            }
+            return bytes;
+        }
+        if (type.getName().startsWith("java.") || type.getName().startsWith("javax.") || type.getName().startsWith("jdk.")) {
+            //JDK内部对象无法反射访问, 只计算对象头
+            return OBJECT_HEADER;
+        }
+        long bytes = OBJECT_HEADER;
+        for (final Field field : FIELDS.get(type)) {
+            final Class<?> fieldType = field.getType();
+            if (fieldType.isPrimitive()) {
+                bytes += primitiveSize(fieldType);
+                continue;
+            }
+            bytes += REFERENCE;
+            try {
+                bytes += estimate(field.get(object), visited);
+            } catch (final IllegalAccessException ignored) {
+                //无法访问的字段只计算引用大小
+            }
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(final String s) {
+        //String对象 + byte[] 内容, 按每个字符2字节保守估算
+        return OBJECT_HEADER * 3L + s.length() * 2L;
+    }
+
+    private static int primitiveSize(final Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+}
@@ -7,50 +7,91 @@ import jakarta.annotation.Nonnull;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 /**
  * @author ycvk
- * @description 本地caffeine缓存配置
+ * @description 本地caffeine缓存配置, 每个缓存区域声明为一个 CacheRegion bean, 由 CaffeineUtil 按区域分别创建缓存
  * @date 2023/08/01 22:13
  */
 @Configuration
 public class CaffeineCacheConfig {
+
+    private static final long MB = 1024 * 1024;
+
+    //默认区域, CaffeineUtil中不指定区域的方法使用
+    public static final String DEFAULT_REGION = "default";
+
     @Bean
-    public Cache<String, CacheDataWrapper> caffeineCache() {
+    public CacheRegion defaultCacheRegion() {
+        return CacheRegion.builder().name(DEFAULT_REGION).maximumBytes(16 * MB).build();
+    }
+
+    //netflav解析后的视频详情
+    @Bean
+    public CacheRegion netflavCacheRegion() {
+        return CacheRegion.builder().name("netflav").maximumBytes(32 * MB).expireAfterWrite(Duration.ofHours(1)).build();
+    }
+
+    //磁力搜索结果
+    @Bean
+    public CacheRegion magnetCacheRegion() {
+        return CacheRegion.builder().name("magnet").maximumBytes(32 * MB).expireAfterWrite(Duration.ofHours(1)).copyOnWrite(true).build();
+    }
+
+    //pixiv排行榜, 由后台刷新保持最新
+    @Bean
+    public CacheRegion pixivRankCacheRegion() {
+        return CacheRegion.builder().name("pixivRank").maximumBytes(16 * MB).expireAfterWrite(Duration.ofDays(1)).copyOnWrite(true).build();
+    }
+
+    //二柄新闻, 由后台刷新保持最新
+    @Bean
+    public CacheRegion erBingNewsCacheRegion() {
+        return CacheRegion.builder().name("erBingNews").maximumBytes(8 * MB).expireAfterWrite(Duration.ofDays(1)).copyOnWrite(true).build();
+    }
+
+    /**
+     * 按区域声明创建缓存
+     *
+     * @param region 区域声明
+     * @return 缓存
+     */
+    public static Cache<String, CacheDataWrapper> buildCache(final CacheRegion region) {
+        final Duration defaultTtl = region.getExpireAfterWrite();
         return Caffeine.newBuilder()
-                // 设置软引用，当GC回收并堆内容空间不足，会回收缓存
-                .softValues()
                 // 初始的缓存空间大小
-                .initialCapacity(100)
-                // 缓存的最大条数
-                .maximumSize(1000)
+                .initialCapacity(16)
+                // 按估算的字节数限制缓存大小
+                .maximumWeight(region.getMaximumBytes())
+                .weigher(new CacheWeigher())
                 // key过期策略
-                .expireAfter(new Expiry<Object, CacheDataWrapper>() {
-                    //创建缓存设置过期时间，当TimeUnit参数为空时，不设置过期
+                .expireAfter(new Expiry<String, CacheDataWrapper>() {
+                    //创建缓存设置过期时间, 未单独指定时使用区域的默认过期时间
                     @Override
-                    public long expireAfterCreate(@Nonnull final Object o, @Nonnull final CacheDataWrapper cw, final long l) {
-                        if (cw.getUnit() != null) {
-                            return cw.getUnit().toNanos(cw.getDelay());
-                        }
-                        return l;
+                    public long expireAfterCreate(@Nonnull final String key, @Nonnull final CacheDataWrapper cw, final long currentTime) {
+                        return ttlNanos(cw, defaultTtl);
                     }
 
                     //更新缓存（相同key）时，取新的过期时间设置
                     @Override
-                    public long expireAfterUpdate(@Nonnull final Object o, @Nonnull final CacheDataWrapper cw, final long l, final long l1) {
-                        if (cw.getUnit() != null) {
-                            return cw.getUnit().toNanos(cw.getDelay());
-                        }
-                        return l;
+                    public long expireAfterUpdate(@Nonnull final String key, @Nonnull final CacheDataWrapper cw, final long currentTime, final long currentDuration) {
+                        return ttlNanos(cw, defaultTtl);
                     }
 
                     //读完缓存不能影响过期时间
                     @Override
-                    public long expireAfterRead(@Nonnull final Object o, @Nonnull final CacheDataWrapper cw, final long l, final long l1) {
-                        return l1;
+                    public long expireAfterRead(@Nonnull final String key, @Nonnull final CacheDataWrapper cw, final long currentTime, final long currentDuration) {
+                        return currentDuration;
                     }
                 })
-                //缓存操作回调函数
                 .build();
     }
-}
 
+    private static long ttlNanos(final CacheDataWrapper cw, final Duration defaultTtl) {
+        if (cw.getUnit() != null) {
+            return cw.getUnit().toNanos(cw.getDelay());
+        }
+        return defaultTtl != null ? defaultTtl.toNanos() : Long.MAX_VALUE;
+    }
+}
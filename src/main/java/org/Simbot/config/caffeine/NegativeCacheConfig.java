@@ -0,0 +1,30 @@
+package org.Simbot.config.caffeine;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import org.Simbot.utils.cache.NegativeCache;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author ：ycvk
+ * @description ：空结果缓存配置, 读取 application.yml 中的 cache.negative.ttl 并注册到 NegativeCache
+ * @date ：2026/10/18 22:55
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cache.negative")
+public class NegativeCacheConfig {
+
+    //数据源 -> 空结果的过期时间, 为0时不缓存空结果
+    private Map<String, Duration> ttl = new HashMap<>();
+
+    @PostConstruct
+    public void registerTtls() {
+        ttl.forEach(NegativeCache::register);
+    }
+}
@@ -0,0 +1,35 @@
+package org.Simbot.config.http;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import org.Simbot.utils.http.CircuitBreakerPolicy;
+import org.Simbot.utils.http.CircuitBreakerRegistry;
+import org.Simbot.utils.http.HostPolicy;
+import org.Simbot.utils.http.HostThrottleRegistry;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author ：ycvk
+ * @description ：上游host限流及熔断配置, 读取 application.yml 中的 http.host-policies 和 http.circuit-breakers
+ * 并分别注册到 HostThrottleRegistry 和 CircuitBreakerRegistry
+ * @date ：2026/10/18 14:40
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "http")
+public class HttpHostPolicyConfig {
+
+    private List<HostPolicy> hostPolicies = new ArrayList<>();
+
+    private List<CircuitBreakerPolicy> circuitBreakers = new ArrayList<>();
+
+    @PostConstruct
+    public void register() {
+        hostPolicies.forEach(HostThrottleRegistry::register);
+        circuitBreakers.forEach(CircuitBreakerRegistry::register);
+    }
+}
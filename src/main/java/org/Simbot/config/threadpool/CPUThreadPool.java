@@ -0,0 +1,96 @@
+package org.Simbot.config.threadpool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author ycvk
+ * @description 自定义cpu密集型线程池, 专用于图片解码/编码/缩放, 与网络回调和ForkJoin公共池隔离
+ * @date 2026/10/18 20:30
+ */
+@Slf4j
+@Component
+public class CPUThreadPool {
+
+    //队列容量, 超出后拒绝任务而不是在调用方(可能是netty的io线程)执行
+    private static final int QUEUE_CAPACITY = 256;
+
+    private static final ThreadPoolExecutor executor;
+    private static final LongAdder rejectedTasks = new LongAdder();
+
+    static {
+        final int corePoolSize = Runtime.getRuntime().availableProcessors();
+
+        final ThreadFactory customThreadFactory = new CustomThreadFactory("cpuIntensive", Thread.NORM_PRIORITY);
+
+        executor = new ThreadPoolExecutor(
+                corePoolSize,
+                corePoolSize,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                customThreadFactory,
+                (task, pool) -> {
+                    rejectedTasks.increment();
+                    log.warn("cpu线程池已满, 拒绝任务, 活跃线程: {}, 队列长度: {}", pool.getActiveCount(), pool.getQueue().size());
+                    throw new RejectedExecutionException("cpu线程池已满");
+                }
+        );
+
+        // 添加JVM关闭钩子
+        Runtime.getRuntime().addShutdownHook(new Thread(CPUThreadPool::shutdown));
+    }
+
+    /**
+     * @return 线程池, 用于 CompletableFuture 的 xxxAsync 方法, 队列满时任务以 RejectedExecutionException 失败
+     */
+    public static Executor executor() {
+        return executor;
+    }
+
+    /**
+     * @return 当前排队的任务数
+     */
+    public static int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return 正在执行任务的线程数
+     */
+    public static int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @return 已完成的任务数
+     */
+    public static long getCompletedTaskCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    /**
+     * @return 因队列已满被拒绝的任务数
+     */
+    public static long getRejectedCount() {
+        return rejectedTasks.sum();
+    }
+
+    // 关闭线程池
+    public static void shutdown() {
+        if (executor.isShutdown()) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (final InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -36,6 +36,13 @@ public class IOThreadPool {
         return executor.submit(task);
     }
 
+    /**
+     * @return 线程池, 用于 CompletableFuture 的 xxxAsync 方法, 队列满时由调用线程执行
+     */
+    public static Executor executor() {
+        return executor;
+    }
+
     // 关闭线程池
     public static void shutdown() {
         if (executor.isShutdown()) {
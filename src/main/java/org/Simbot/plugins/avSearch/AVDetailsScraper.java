@@ -6,7 +6,7 @@ import cn.hutool.json.JSONUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.Simbot.plugins.avSearch.entity.AvDetail;
 import org.Simbot.utils.AsyncHttpClientUtil;
-import org.jsoup.Jsoup;
+import org.Simbot.utils.http.HttpStatusException;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -31,6 +31,13 @@ public class AVDetailsScraper {
 
     private static final Pattern IMAGE_PATTERN = Pattern.compile("img = '(.*?)';", Pattern.DOTALL);
 
+    /**
+     * 从javbus获取番号详情
+     *
+     * @param avNumber 番号
+     * @return 详情, javbus确认没有该番号(404)时返回null
+     * @throws IOException 请求失败、超时、熔断、非404的错误响应或页面不是详情页(如验证页)时, 此时不能确定番号不存在
+     */
     public AvDetail getAVDetail(final String avNumber) throws IOException {
         if (StrUtil.isBlank(avNumber)) {
             return null;
@@ -38,14 +45,15 @@ public class AVDetailsScraper {
         final String url = BASE_URL + avNumber;
         final Document doc;
         try {
-            final var responsePair = AsyncHttpClientUtil.doGet(url);
-            final String body = responsePair.getValue().getResponseBody();
-            doc = Jsoup.parse(body);
+            doc = AsyncHttpClientUtil.getDocument(url);
         } catch (final Exception e) {
-            return null;
+            if (HttpStatusException.statusOf(e) == 404) {
+                return null;
+            }
+            throw e instanceof final IOException io ? io : new IOException("获取javbus详情失败: " + avNumber, e);
         }
         if (doc.select("h3").isEmpty()) {
-            return null;
+            throw new IOException("javbus页面不是详情页: " + avNumber);
         }
 
         final var title = getTitle(doc);
@@ -126,9 +134,7 @@ public class AVDetailsScraper {
             final String gid = m.group(1);
             final String uc = m.group(2);
             final String detailUrl = BASE_URL + "ajax/uncledatoolsbyajax.php?gid=" + gid + "&lang=zh&uc=" + uc;
-            final Document detailDoc = Jsoup.connect(detailUrl)
-                    .header("Referer", BASE_URL + avNumber)
-                    .get();
+            final Document detailDoc = AsyncHttpClientUtil.getDocument(detailUrl, builder -> builder.setHeader("Referer", BASE_URL + avNumber));
 
             final Elements links = detailDoc.select("a[href]");
 
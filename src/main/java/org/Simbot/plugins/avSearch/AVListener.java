@@ -18,20 +18,29 @@ import love.forte.simbot.event.GroupMessageEvent;
 import love.forte.simbot.message.MessagesBuilder;
 import love.forte.simbot.resources.Resource;
 import net.mamoe.mirai.message.data.ForwardMessage;
+import org.Simbot.config.av.AvReplyConfig;
+import org.Simbot.config.av.AvReplyConfig.ReplyMode;
+import org.Simbot.config.threadpool.IOThreadPool;
 import org.Simbot.mybatisplus.mapper.AvDetailMapper;
 import org.Simbot.mybatisplus.mapper.AvPreviewMapper;
 import org.Simbot.plugins.avSearch.entity.AvDetail;
 import org.Simbot.plugins.avSearch.entity.CustomDetailEntity;
 import org.Simbot.plugins.avSearch.entity.FC2SearchEntity;
 import org.Simbot.plugins.avSearch.entity.NetflavEntity;
+import org.Simbot.plugins.avSearch.entity.NetflavVideo;
 import org.Simbot.utils.AsyncHttpClientUtil;
 import org.Simbot.utils.SendMsgUtil;
+import org.Simbot.utils.cache.NegativeCache;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -44,6 +53,15 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class AVListener {
 
+    //预览图下载的整体截止时间, 超时后只发送已下载完成的预览图
+    private static final Duration PREVIEW_DEADLINE = Duration.ofSeconds(15);
+    //单张预览图的截止时间, 个别图片过慢时丢弃该图片
+    private static final Duration PREVIEW_ITEM_DEADLINE = Duration.ofSeconds(10);
+    //封面和netflav详情的截止时间, 超时后按没有数据继续
+    private static final Duration STEP_TIMEOUT = Duration.ofSeconds(15);
+    //空结果缓存的数据源
+    private static final String NEGATIVE_SOURCE = "av";
+
     private final AVDetailsScraper avDetailsScraper;
 
     private final NetflavDetailsScraper netflavDetailsScraper;
@@ -52,6 +70,8 @@ public class AVListener {
 
     private final AvPreviewMapper avPreviewMapper;
 
+    private final AvReplyConfig avReplyConfig;
+
     @Listener
     @Filter(value = "/av {{text}}", matchType = MatchType.REGEX_CONTAINS)
     @SneakyThrows
@@ -68,18 +88,30 @@ public class AVListener {
         } else {
             text = text.replaceFirst("^FC2(?!-)", "FC2-");
         }
-
-        //构建消息链
-        final var chain = new MiraiForwardMessageBuilder(ForwardMessage.DisplayStrategy.Default);
+        //最近查询过且没有结果的番号不再查询数据库和上游
+        if (NegativeCache.isMissing(NEGATIVE_SOURCE, text)) {
+            SendMsgUtil.sendSimpleGroupMsg(event, "没有找到相关信息");
+            return;
+        }
 
         if (text.startsWith("FC2")) {
             SendMsgUtil.withdrawMessage(SendMsgUtil.sendSimpleGroupMsg(event, "正在检索fc2中，请稍候"), 15);
-            final List<FC2SearchEntity> list = FC2Scraper.searchByAvNum(text);
+            final List<FC2SearchEntity> list;
+            try {
+                list = FC2Scraper.searchByAvNum(text);
+            } catch (final Exception e) {
+                //请求失败不能确定番号不存在, 不记录空结果
+                log.error("搜索FC2番号 {} 失败", text, e);
+                SendMsgUtil.sendSimpleGroupMsg(event, "检索失败，请稍后再试");
+                return;
+            }
             if (CollUtil.isEmpty(list) || null == list.get(0)) {
+                NegativeCache.markMissing(NEGATIVE_SOURCE, text);
                 SendMsgUtil.sendSimpleGroupMsg(event, "没有找到相关信息");
                 return;
             }
             final MessagesBuilder builder = FC2Scraper.buildFC2Message(list.get(0));
+            final var chain = new MiraiForwardMessageBuilder(ForwardMessage.DisplayStrategy.Default);
             chain.add(event.getBot(), builder.build());
             event.getSource().sendAsync(chain.build());
             return;
@@ -87,13 +119,21 @@ public class AVListener {
         final var messageReceipt = SendMsgUtil.sendReplyGroupMsg(event, "正在检索中，请稍候");
         final boolean flag;
         final AvDetail avDetail;
-        final List<String> previewImages;
+        //javbus是否确认没有该番号, 只有所有数据源都确认没有时才记录空结果
+        boolean javbusMissing = false;
         //通过番号获取详情
         final AvDetail avDetailByDB = avDetailMapper.selectByAvNum(text);
         if (BeanUtil.isEmpty(avDetailByDB)) {
             //数据库没有, 通过javbus获取详情
             flag = true;
-            avDetail = avDetailsScraper.getAVDetail(text);
+            AvDetail fromJavbus = null;
+            try {
+                fromJavbus = avDetailsScraper.getAVDetail(text);
+                javbusMissing = fromJavbus == null;
+            } catch (final Exception e) {
+                log.error("获取javbus番号 {} 详情失败, 尝试Arzon", text, e);
+            }
+            avDetail = fromJavbus;
         } else {
             flag = false;
             avDetail = avDetailByDB;
@@ -102,85 +142,203 @@ public class AVListener {
         SendMsgUtil.withdrawMessage(messageReceipt, 15);
         if (avDetail == null) {
 //            SendMsgUtil.sendSimpleGroupMsg(event, "没有找到相关信息");
-            getAvDetailByArzon(text, event);
+            getAvDetailByArzon(text, event, javbusMissing);
             return;
         }
+        final ReplyMode mode = avReplyConfig.modeOf(event.getGroup().getId().toString());
         //下载封面
-        final var arrayInputStream = CompletableFuture.supplyAsync(() -> AsyncHttpClientUtil.downloadImage(avDetail.getCoverUrl()));
+        final var arrayInputStream = AsyncHttpClientUtil.downloadCachedImageAsync(avDetail.getCoverUrl())
+                .completeOnTimeout(null, STEP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        //netflav详情只获取并解析一次, 播放地址、磁力链接、简介、预览图和时长都从中读取; 在io线程池中执行, 不占用公共池; 失败或超时按没有数据处理, 后续步骤不会无限等待
+        final CompletableFuture<NetflavVideo> netflavVideo = flag
+                ? CompletableFuture.supplyAsync(() -> netflavDetailsScraper.getVideo(avDetail.getAvNum()), IOThreadPool.executor())
+                .exceptionally(throwable -> {
+                    log.error("获取netflav详情失败: {}", avDetail.getAvNum(), throwable);
+                    return NetflavVideo.EMPTY;
+                })
+                .completeOnTimeout(NetflavVideo.EMPTY, STEP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                : CompletableFuture.completedFuture(NetflavVideo.EMPTY);
         //获取视频播放地址
-        final var videoPlayUrl = CompletableFuture.supplyAsync(() -> flag ? netflavDetailsScraper.getVideoUrl(avDetail.getAvNum()) : JSONUtil.toList(avDetail.getOnlinePlayUrl(), String.class));
+        final var videoPlayUrl = flag ? netflavVideo.thenApply(NetflavVideo::videoUrls) : CompletableFuture.completedFuture(JSONUtil.toList(avDetail.getOnlinePlayUrl(), String.class));
         //获取磁力链接
-        final var netflavMagnetLink = flag ? CompletableFuture.supplyAsync(() -> netflavDetailsScraper.getMagnetLink(avDetail.getAvNum())) : null;
+        final var netflavMagnetLink = flag ? netflavVideo.thenApply(NetflavVideo::magnetLinks) : CompletableFuture.<Map<String, Set<String>>>completedFuture(null);
         //获取番号简介
-        final var description = CompletableFuture.supplyAsync(() -> flag ? netflavDetailsScraper.getDescription(avDetail.getAvNum()) : avDetail.getDescription());
-
-        final var builder = new MessagesBuilder();
+        final var description = flag ? netflavVideo.thenApply(NetflavVideo::description) : CompletableFuture.completedFuture(avDetail.getDescription());
 
+        if (mode == ReplyMode.PROGRESSIVE) {
+            //渐进模式: 详情到手立即发送文字摘要, 其余内容完成后陆续发送
+            event.getSource().sendAsync(buildSummary(avDetail, null));
+            description.thenAccept(desc -> {
+                if (StrUtil.isNotBlank(desc)) {
+                    event.getSource().sendAsync("简介 : " + desc);
+                }
+            });
+            arrayInputStream.thenAccept(stream -> sendImages(event, "封面 :\n", stream == null ? List.of() : List.of(stream)));
+        }
 
 //        final var previewImages = avDetail.getPreviewImages();//javbus方式获取预览图, 有水印, 换为netflav方式获取
+        final CompletableFuture<List<String>> previewImages;
         if (flag) {
-            final List<String> netflavPreviewImgs = netflavDetailsScraper.getPreviewImages(avDetail.getAvNum());
             if (CollUtil.isEmpty(avDetail.getPreviewImages())) {
-                previewImages = netflavPreviewImgs;
+                previewImages = netflavVideo.thenApply(NetflavVideo::previewImages);
             } else {
-                previewImages = avDetail.getPreviewImages();
+                previewImages = CompletableFuture.completedFuture(avDetail.getPreviewImages());
             }
-//            if (netflavPreviewImgs.size() > 1 || netflavPreviewImgs.size() >= avDetail.getPreviewImages().size()) {
-//                previewImages = netflavPreviewImgs;
-//            } else {
-//                previewImages = avDetail.getPreviewImages();
-//            }
         } else {
             final List<String> list = avPreviewMapper.selectByAvNum(text);
             if (CollUtil.isEmpty(list)) {
-                previewImages = netflavDetailsScraper.getPreviewImages(avDetail.getAvNum());
+                previewImages = CompletableFuture.supplyAsync(() -> netflavDetailsScraper.getPreviewImages(avDetail.getAvNum()), IOThreadPool.executor())
+                        .exceptionally(throwable -> {
+                            log.error("获取netflav预览图失败: {}", avDetail.getAvNum(), throwable);
+                            return List.of();
+                        })
+                        .completeOnTimeout(List.of(), STEP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
             } else {
-                previewImages = list;
+                previewImages = CompletableFuture.completedFuture(list);
             }
         }
-        if (CollUtil.isNotEmpty(previewImages)) {
-            avDetail.setPreviewImages(previewImages);
+        //异步下载预览图
+        final var previewStreams = previewImages.thenCompose(images -> {
+            if (CollUtil.isNotEmpty(images)) {
+                avDetail.setPreviewImages(images);
+            }
+            log.info("开始下载预览图");
+            return AsyncHttpClientUtil.fetchAll(Optional.ofNullable(images)
+                    .orElse(Collections.emptyList())
+                    .stream()
+                    .limit(8)//最多下载8张预览图
+                    .filter(StrUtil::isNotBlank)
+                    .toList(), AsyncHttpClientUtil::downloadCachedImageAsync, PREVIEW_ITEM_DEADLINE, PREVIEW_DEADLINE);
+        }).exceptionally(throwable -> {
+            log.error("下载番号 {} 的预览图失败", avDetail.getAvNum(), throwable);
+            return List.of();
+        });
+        //播放地址和磁力链接完成时回写到详情中, 用于保存到数据库
+        final var playUrlMessage = videoPlayUrl.thenApply(videoPlayLink -> {
+            avDetail.setOnlinePlayUrl(JSONUtil.toJsonStr(videoPlayLink));
+            return "在线播放地址 :\n" + videoPlayLink.stream().reduce((a, b) -> a + "\n" + b).orElse("没有找到相关信息");
+        });
+        final var magnetMessage = netflavMagnetLink.thenApply(map -> buildMagnetMessage(avDetail, flag, map));
+
+        if (mode == ReplyMode.PROGRESSIVE) {
+            previewStreams.thenAccept(streams -> sendImages(event, "预览图 :\n", streams));
+            playUrlMessage.thenAccept(message -> event.getSource().sendAsync(message));
+            magnetMessage.thenAccept(message -> event.getSource().sendAsync(message.build()));
         }
-        final String descriptionByNetflav = description.get(15, TimeUnit.SECONDS);
+
+        //所有步骤都有超时, 全部完成(包括失败)后再发送合并消息和保存, 不阻塞监听线程
+        final CompletableFuture<Void> ready = CompletableFuture.allOf(arrayInputStream, description, previewStreams, playUrlMessage, magnetMessage);
+        if (mode == ReplyMode.FORWARD) {
+            ready.handle((v, throwable) -> {
+                if (throwable != null) {
+                    log.warn("番号 {} 的部分内容获取失败, 只发送已获取到的内容", avDetail.getAvNum(), throwable);
+                }
+                //构建消息链, 每一部分单独取结果, 某一部分失败时只缺少该部分
+                final var chain = new MiraiForwardMessageBuilder(ForwardMessage.DisplayStrategy.Default);
+                final var builder = new MessagesBuilder();
+                final ByteArrayInputStream cover = resultOf(arrayInputStream, null);
+                builder.text(buildSummary(avDetail, resultOf(description, null)) + "封面 : \n");
+                appendImages(builder, cover == null ? List.of() : List.of(cover));
+                builder.text("预览图 :\n");
+                appendImages(builder, resultOf(previewStreams, List.of()));
+                chain.add(event.getBot(), builder.build());
+                final String playUrl = resultOf(playUrlMessage, null);
+                if (playUrl != null) {
+                    chain.add(event.getBot(), playUrl);
+                }
+                final MessagesBuilder magnet = resultOf(magnetMessage, null);
+                if (magnet != null) {
+                    chain.add(event.getBot(), magnet.build());
+                }
+                //发送消息
+                log.info("开始发送消息");
+                event.getSource().sendAsync(chain.build());
+                return null;
+            }).exceptionally(throwable -> {
+                log.error("发送番号 {} 的消息失败", avDetail.getAvNum(), throwable);
+                return null;
+            });
+        }
+        if (flag) {
+            //无论消息是否发送成功都保存已获取到的详情
+            ready.whenComplete((v, throwable) -> saveAvDetail(avDetail, resultOf(netflavVideo, NetflavVideo.EMPTY),
+                    resultOf(description, null), resultOf(previewImages, null)));
+        }
+    }
+
+    /**
+     * 读取已完成的步骤的结果
+     *
+     * @param future       步骤
+     * @param defaultValue 未完成、失败或结果为null时的默认值
+     * @return 结果
+     */
+    private static <T> T resultOf(final CompletableFuture<T> future, final T defaultValue) {
+        try {
+            final T value = future.getNow(defaultValue);
+            return value == null ? defaultValue : value;
+        } catch (final CompletionException | CancellationException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 保存新查询到的详情和预览图
+     *
+     * @param avDetail      详情
+     * @param netflavVideo  netflav详情, 用于回写时长
+     * @param description   简介
+     * @param previewImages 预览图地址
+     */
+    private void saveAvDetail(final AvDetail avDetail, final NetflavVideo netflavVideo, final String description, final List<String> previewImages) {
+        try {
+            avDetail.setDuration(netflavVideo.duration());
+            if (StrUtil.isNotBlank(description)) {
+                avDetail.setDescription(description);
+            }
+            //保存到数据库
+            avDetailMapper.insert(avDetail);
+            avPreviewMapper.insertList(avDetail.getAvNum(), previewImages);
+        } catch (final Exception e) {
+            log.error("保存番号 {} 的详情失败", avDetail.getAvNum(), e);
+        }
+    }
+
+    /**
+     * 构建番号详情的文字摘要
+     *
+     * @param avDetail    详情
+     * @param description 简介, 为null时不包含简介
+     * @return 摘要
+     */
+    private String buildSummary(final AvDetail avDetail, final String description) {
         final var stringBuilder = new StringBuilder()
                 .append("番号 : ").append(avDetail.getAvNum()).append("\n")
                 .append("标题 : ").append(avDetail.getTitle()).append("\n")
-                .append("演员 : ").append(avDetail.getActors()).append("\n")
-                .append("简介 : ").append(descriptionByNetflav).append("\n")
+                .append("演员 : ").append(avDetail.getActors()).append("\n");
+        if (description != null) {
+            stringBuilder.append("简介 : ").append(StrUtil.blankToDefault(description, "没有找到相关信息")).append("\n");
+        }
+        return stringBuilder
                 .append("发行日期 : ").append(avDetail.getReleaseDate()).append("\n")
                 .append("类别 : ").append(JSONUtil.toList(avDetail.getCategories(), String.class).stream().reduce((a, b) -> a + " " + b).orElse("没有找到相关信息")).append("\n")
-                .append("封面 : " + "\n");
-
-        builder.text(stringBuilder.toString())
-                .image(Resource.of(arrayInputStream.get(15, TimeUnit.SECONDS)))
-                .text("预览图 :\n");
-
-        //并行流下载
-        log.info("开始下载预览图");
-        Optional.ofNullable(previewImages)
-                .orElse(Collections.emptyList())
-                .subList(0, Math.min(previewImages.size(), 8))//最多下载8张预览图
-                .parallelStream()
-                .filter(StrUtil::isNotBlank)
-                .map(AsyncHttpClientUtil::downloadImage)
-                .forEach(inputStream -> {
-                    try {
-                        builder.image(Resource.of(inputStream));
-                    } catch (final IOException e) {
-                        builder.text("下载预览图失败\n");
-                        log.error("下载预览图失败", e);
-                    }
-                });
+                .toString();
+    }
 
-        chain.add(event.getBot(), builder.build());
-        final List<String> videoPlayLink = videoPlayUrl.get(15, TimeUnit.SECONDS);
-        avDetail.setOnlinePlayUrl(JSONUtil.toJsonStr(videoPlayLink));
-        chain.add(event.getBot(), "在线播放地址 :\n" + videoPlayLink.stream().reduce((a, b) -> a + "\n" + b).orElse("没有找到相关信息"));
+    /**
+     * 构建磁力链接消息, netflav获取到的磁力链接会回写到详情中
+     *
+     * @param avDetail 详情
+     * @param flag     是否为新查询的详情
+     * @param map      netflav获取到的磁力链接, 按清晰度分组
+     * @return 消息
+     */
+    private MessagesBuilder buildMagnetMessage(final AvDetail avDetail, final boolean flag, final Map<String, Set<String>> map) {
         final var magnetMessageBuilder = new MessagesBuilder().text("磁力链接 : \n");
         if (flag) {
-            final Map<String, Set<String>> map = netflavMagnetLink.get(15, TimeUnit.SECONDS);
             if (CollUtil.isNotEmpty(map)) {
-                final Set<String> magnetHD = map.get("HD");
+                //netflav可能只有字幕版没有HD
+                final Set<String> magnetHD = map.getOrDefault("HD", Set.of());
                 avDetail.setMagnetLinkHd(JSONUtil.toJsonStr(magnetHD));
                 magnetMessageBuilder.text("[HD]\n")
                         .text(magnetHD.stream().reduce((a, b) -> a + "\n" + b).orElse("没有找到相关信息")).text("\n");
@@ -207,22 +365,34 @@ public class AVListener {
                 magnetMessageBuilder.text(JSONUtil.toList(avDetail.getMagnetLink(), String.class).stream().reduce((a, b) -> a + "\n" + b).orElse("没有找到相关信息"));
             }
         }
+        return magnetMessageBuilder;
+    }
 
-        chain.add(event.getBot(), magnetMessageBuilder.build());
-        //发送消息
-        log.info("开始发送消息");
-        final var sendAsync = event.getSource().sendAsync(chain.build());
-        if (flag) {
-            avDetail.setDuration(netflavDetailsScraper.getDuration(avDetail.getAvNum()));
-            if (StrUtil.isNotBlank(descriptionByNetflav)) {
-                avDetail.setDescription(descriptionByNetflav);
+    /**
+     * 渐进模式下发送一组图片, 没有图片时不发送
+     *
+     * @param event   消息事件
+     * @param title   标题
+     * @param streams 图片
+     */
+    private void sendImages(final GroupMessageEvent event, final String title, final List<ByteArrayInputStream> streams) {
+        if (CollUtil.isEmpty(streams)) {
+            return;
+        }
+        final var builder = new MessagesBuilder().text(title);
+        appendImages(builder, streams);
+        event.getSource().sendAsync(builder.build());
+    }
+
+    private void appendImages(final MessagesBuilder builder, final List<ByteArrayInputStream> streams) {
+        for (final ByteArrayInputStream inputStream : streams) {
+            try {
+                builder.image(Resource.of(inputStream));
+            } catch (final IOException e) {
+                builder.text("下载预览图失败\n");
+                log.error("下载预览图失败", e);
             }
-            //保存到数据库
-            avDetailMapper.insert(avDetail);
-            avPreviewMapper.insertList(avDetail.getAvNum(), previewImages);
         }
-        //撤回消息
-//        SendMsgUtil.withdrawMessage(sendAsync.get(30, TimeUnit.SECONDS), 55);
     }
 
     @Listener
@@ -243,53 +413,73 @@ public class AVListener {
         }
         final var chain = new MiraiForwardMessageBuilder(ForwardMessage.DisplayStrategy.Default);
         final List<NetflavEntity> list = response.toList(NetflavEntity.class);
-        list.parallelStream()
-                .unordered()
+        final List<CompletableFuture<MessagesBuilder>> builders = list.stream()
                 .distinct()
                 .map(this::getActorMessageBuilder)
-                .forEach(builder -> chain.add(event.getBot(), builder.build()));
+                .toList();
+        CompletableFuture.allOf(builders.toArray(CompletableFuture[]::new)).join();
+        builders.forEach(builder -> chain.add(event.getBot(), builder.join().build()));
         event.getSource().sendBlocking(chain.build());
     }
 
-    @SneakyThrows
-    private MessagesBuilder getActorMessageBuilder(final NetflavEntity entity) {
-        final MessagesBuilder builder = new MessagesBuilder();
+    private CompletableFuture<MessagesBuilder> getActorMessageBuilder(final NetflavEntity entity) {
         final var stringBuilder = new StringBuilder()
                 .append("番号 : ").append(entity.getCode()).append("\n")
                 .append("标题 : ").append(entity.getTitle()).append("\n")
                 .append("发行日期 : ").append(entity.getSourceDate()).append("\n")
                 .append("封面 : " + "\n");
-        builder.text(stringBuilder.toString());
-        final var stream = AsyncHttpClientUtil.downloadImage(entity.getPreview(), true);
-        if (stream == null) {
-            builder.text("无封面或下载封面失败");
-        } else {
-            builder.image(Resource.of(stream));
-        }
-        return builder;
+        return AsyncHttpClientUtil.downloadCachedImageAsync(entity.getPreview(), true)
+                .completeOnTimeout(null, 30, TimeUnit.SECONDS)
+                .thenApply(stream -> {
+                    final MessagesBuilder builder = new MessagesBuilder();
+                    builder.text(stringBuilder.toString());
+                    if (stream == null) {
+                        return builder.text("无封面或下载封面失败");
+                    }
+                    try {
+                        builder.image(Resource.of(stream));
+                    } catch (final IOException e) {
+                        builder.text("无封面或下载封面失败");
+                        log.error("下载封面失败", e);
+                    }
+                    return builder;
+                });
     }
 
 
     @SneakyThrows
-    private void getAvDetailByArzon(final String avNum, final GroupMessageEvent event) {
-        final List<CustomDetailEntity> entities = ArzonScraper.searchByAvNum(avNum);
-        if (CollUtil.isEmpty(entities)) {
-            SendMsgUtil.sendSimpleGroupMsg(event, "没有找到相关信息");
+    private void getAvDetailByArzon(final String avNum, final GroupMessageEvent event, final boolean javbusMissing) {
+        final List<CustomDetailEntity> entities;
+        try {
+            entities = ArzonScraper.searchByAvNum(avNum);
+        } catch (final Exception e) {
+            log.error("搜索Arzon番号 {} 失败", avNum, e);
+            SendMsgUtil.sendSimpleGroupMsg(event, "检索失败，请稍后再试");
             return;
         }
         final CustomDetailEntity detail = entities.stream().filter(entity -> entity.getNumber().equalsIgnoreCase(avNum)).findFirst().orElse(null);
         if (BeanUtil.isEmpty(detail)) {
+            if (javbusMissing) {
+                //javbus和Arzon都确认没有该番号
+                NegativeCache.markMissing(NEGATIVE_SOURCE, avNum);
+            }
             SendMsgUtil.sendSimpleGroupMsg(event, "没有找到相关信息");
             return;
         }
         final Map<String, String> headers = ArzonScraper.getHeaders(detail.getHomepage());
         final var document = ArzonScraper.getDocument(detail);
         //获取封面
-        final var coverStream = CompletableFuture.supplyAsync(() -> AsyncHttpClientUtil.downloadImage(detail.getCoverUrl(), headers));
+        final var coverStream = AsyncHttpClientUtil.downloadImageAsync(detail.getCoverUrl(), headers);
         //获取详情
         final String desc = ArzonScraper.getDesc(document);
         //获取预览图
         final List<String> previewImg = ArzonScraper.getPreviewImg(document);
+        final var previewStreams = AsyncHttpClientUtil.fetchAll(Optional.ofNullable(previewImg)
+                .orElse(Collections.emptyList())
+                .stream()
+                .limit(8)//最多下载8张预览图
+                .filter(StrUtil::isNotBlank)
+                .toList(), imgUrl -> AsyncHttpClientUtil.downloadImageAsync(imgUrl, headers), PREVIEW_ITEM_DEADLINE, PREVIEW_DEADLINE);
 
         final var stringBuilder = new StringBuilder()
                 .append("番号 : ").append(detail.getNumber()).append("\n")
@@ -303,18 +493,14 @@ public class AVListener {
                 .image(Resource.of(coverStream.get(15, TimeUnit.SECONDS)));
         if (CollUtil.isNotEmpty(previewImg)) {
             builder.text("预览图 :\n");
-            previewImg.subList(0, Math.min(previewImg.size(), 8))//最多下载8张预览图
-                    .parallelStream()
-                    .filter(StrUtil::isNotBlank)
-                    .map(imgUrl -> AsyncHttpClientUtil.downloadImage(imgUrl, headers))
-                    .forEach(inputStream -> {
-                        try {
-                            builder.image(Resource.of(inputStream));
-                        } catch (final IOException e) {
-                            builder.text("下载预览图失败\n");
-                            log.error("下载预览图失败", e);
-                        }
-                    });
+            for (final ByteArrayInputStream inputStream : previewStreams.get(20, TimeUnit.SECONDS)) {
+                try {
+                    builder.image(Resource.of(inputStream));
+                } catch (final IOException e) {
+                    builder.text("下载预览图失败\n");
+                    log.error("下载预览图失败", e);
+                }
+            }
         }
         final var chain = new MiraiForwardMessageBuilder(ForwardMessage.DisplayStrategy.Default);
         chain.add(event.getBot(), builder.build());
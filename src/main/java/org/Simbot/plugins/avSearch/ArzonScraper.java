@@ -9,11 +9,12 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.Simbot.plugins.avSearch.entity.CustomDetailEntity;
 import org.Simbot.utils.AsyncHttpClientUtil;
-import org.jsoup.Jsoup;
+import org.Simbot.utils.http.HttpStatusException;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -27,14 +28,27 @@ public class ArzonScraper {
     private static final String ARZON_SEARCH_URL = "https://jav.mcjoker.xyz/v1/movies/search?provider=ARZON&q=";
     private static final String ARZON_URL = "https://www.arzon.jp/";
 
-    public static List<CustomDetailEntity> searchByAvNum(final String avNum) {
-        final var pair = AsyncHttpClientUtil.doGet(ARZON_SEARCH_URL + avNum);
-        final String body = pair.getValue().getResponseBody();
-        final JSONObject entries = JSONUtil.parseObj(body);
+    /**
+     * 根据番号搜索Arzon
+     *
+     * @param avNum 番号
+     * @return 搜索结果, 接口确认没有结果时返回空列表
+     * @throws IOException 错误响应或响应中没有data字段时, 此时不能确定番号不存在
+     */
+    public static List<CustomDetailEntity> searchByAvNum(final String avNum) throws IOException {
+        final String url = ARZON_SEARCH_URL + avNum;
+        final var response = AsyncHttpClientUtil.doGet(url).getValue();
+        if (response.getStatusCode() >= 400) {
+            throw new HttpStatusException(response.getStatusCode(), url);
+        }
+        final JSONObject entries = JSONUtil.parseObj(response.getResponseBody());
+        if (!entries.containsKey("data")) {
+            throw new IOException("Arzon搜索响应缺少data: " + avNum);
+        }
         final JSONArray array = entries.getJSONArray("data");
         if (CollUtil.isEmpty(array)) {
             log.info("array is empty");
-            return null;
+            return List.of();
         }
         return array.toList(CustomDetailEntity.class);
     }
@@ -57,7 +71,7 @@ public class ArzonScraper {
     @SneakyThrows
     public static Document getDocument(final CustomDetailEntity entity) {
         final String homepage = entity.getHomepage();
-        return Jsoup.connect(homepage).get();
+        return AsyncHttpClientUtil.getDocument(homepage);
     }
 
     public static String getDesc(final Document document) {
@@ -9,15 +9,16 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import love.forte.simbot.message.MessagesBuilder;
 import love.forte.simbot.resources.Resource;
-import org.Simbot.config.threadpool.IOThreadPool;
 import org.Simbot.plugins.avSearch.entity.FC2SearchEntity;
 import org.Simbot.utils.AsyncHttpClientUtil;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
+import org.Simbot.utils.http.HttpStatusException;
 import org.jsoup.select.Elements;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -35,24 +36,42 @@ public class FC2Scraper {
      * 根据番号搜索FC2视频
      *
      * @param avNum 番号
-     * @return 视频信息
+     * @return 视频信息, 接口确认没有结果时返回空列表
+     * @throws IOException 错误响应或响应中没有data字段时, 此时不能确定番号不存在
      */
-    public static List<FC2SearchEntity> searchByAvNum(final String avNum) {
-        final var pair = AsyncHttpClientUtil.doGet(FC2_CUSTOM_SEARCH_URL + avNum);
-        final String body = pair.getValue().getResponseBody();
-        final JSONObject entries = JSONUtil.parseObj(body);
-        return entries.getBeanList("data", FC2SearchEntity.class);
+    public static List<FC2SearchEntity> searchByAvNum(final String avNum) throws IOException {
+        final String url = FC2_CUSTOM_SEARCH_URL + avNum;
+        final var response = AsyncHttpClientUtil.doGet(url).getValue();
+        if (response.getStatusCode() >= 400) {
+            throw new HttpStatusException(response.getStatusCode(), url);
+        }
+        final JSONObject entries = JSONUtil.parseObj(response.getResponseBody());
+        if (!entries.containsKey("data")) {
+            throw new IOException("FC2搜索响应缺少data: " + avNum);
+        }
+        final List<FC2SearchEntity> list = entries.getBeanList("data", FC2SearchEntity.class);
+        return list == null ? List.of() : list;
     }
 
-    @SneakyThrows
-    private static List<ByteArrayInputStream> getFC2ImgById(final String id) {
-        final Document document = Jsoup.connect(FC2_SEARCH_URL + id).get();
-        final Elements imageLinks = document.select("ul.items_article_SampleImagesArea > li > a");
-        return imageLinks.parallelStream()
-                .map(link -> link.attr("href"))
-                .filter(StrUtil::isNotBlank)
-                .map(AsyncHttpClientUtil::downloadImage)
-                .toList();
+    /**
+     * 异步获取FC2详情页并下载预览图, 详情页获取失败时返回空列表
+     *
+     * @param id FC2视频id
+     * @return 预览图
+     */
+    private static CompletableFuture<List<ByteArrayInputStream>> getFC2ImgById(final String id) {
+        return AsyncHttpClientUtil.getDocumentAsync(FC2_SEARCH_URL + id, null)
+                .thenCompose(document -> {
+                    final Elements imageLinks = document.select("ul.items_article_SampleImagesArea > li > a");
+                    return AsyncHttpClientUtil.fetchAll(imageLinks.stream()
+                            .map(link -> link.attr("href"))
+                            .filter(StrUtil::isNotBlank)
+                            .toList(), AsyncHttpClientUtil::downloadCachedImageAsync, Duration.ofSeconds(15));
+                })
+                .exceptionally(throwable -> {
+                    log.error("获取FC2预览图失败: {}", id, throwable);
+                    return List.of();
+                });
     }
 
     @SneakyThrows
@@ -60,9 +79,11 @@ public class FC2Scraper {
         if (BeanUtil.isEmpty(entity)) {
             return null;
         }
-        //用另外的线程去获取图片
-        final var listFuture = IOThreadPool.submit(() -> getFC2ImgById(entity.getId()));
-        final var coverUrlTask = IOThreadPool.submit(() -> AsyncHttpClientUtil.downloadImage(entity.getCoverUrl()));
+        //封面和预览图均异步下载, 不占用额外线程
+        final var coverUrlTask = AsyncHttpClientUtil.downloadCachedImageAsync(entity.getCoverUrl())
+                .exceptionally(throwable -> null)
+                .completeOnTimeout(null, 15, TimeUnit.SECONDS);
+        final var listFuture = getFC2ImgById(entity.getId());
         final MessagesBuilder builder = new MessagesBuilder();
         final StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append("标题：").append(entity.getTitle()).append("\n")
@@ -71,17 +92,20 @@ public class FC2Scraper {
                 .append("发行日期：").append(DateUtil.parseDate(entity.getReleaseDate())).append("\n")
                 .append("封面：").append("\n");
         builder.text(stringBuilder.toString());
-        builder.image(Resource.of(coverUrlTask.get(15, TimeUnit.SECONDS)));
+        //封面或预览图失败时只缺少该部分, 仍然返回文字信息
+        final ByteArrayInputStream cover = coverUrlTask.join();
+        if (cover != null) {
+            builder.image(Resource.of(cover));
+        }
         builder.append("预览图：").append("\n");
-        final List<ByteArrayInputStream> list = listFuture.get(15, TimeUnit.SECONDS);
-        list.parallelStream()
-                .forEach(inputStream -> {
-                    try {
-                        builder.image(Resource.of(inputStream));
-                    } catch (final Exception e) {
-                        log.error("下载预览图失败", e);
-                    }
-                });
+        final List<ByteArrayInputStream> list = listFuture.completeOnTimeout(List.of(), 20, TimeUnit.SECONDS).join();
+        for (final ByteArrayInputStream inputStream : list) {
+            try {
+                builder.image(Resource.of(inputStream));
+            } catch (final Exception e) {
+                log.error("下载预览图失败", e);
+            }
+        }
         return builder;
     }
 }
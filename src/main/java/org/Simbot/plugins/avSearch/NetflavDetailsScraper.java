@@ -1,25 +1,23 @@
 package org.Simbot.plugins.avSearch;
 
-import cn.hutool.core.collection.CollUtil;
-import cn.hutool.core.util.StrUtil;
 import cn.hutool.json.JSONArray;
 import cn.hutool.json.JSONObject;
 import cn.hutool.json.JSONUtil;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.Simbot.plugins.avSearch.entity.NetflavVideo;
 import org.Simbot.utils.AsyncHttpClientUtil;
 import org.Simbot.utils.CaffeineUtil;
-import org.redisson.api.RLock;
-import org.redisson.api.RMapCache;
+import org.Simbot.utils.cache.TieredCacheLoader;
+import org.Simbot.utils.http.CircuitBreakerRegistry;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Component;
 
-import java.util.*;
-import java.util.concurrent.TimeUnit;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * @author ：ycvk
@@ -31,44 +29,52 @@ import java.util.stream.Stream;
 public class NetflavDetailsScraper {
 
     @Resource
-    private CaffeineUtil caffeineUtil;
+    private RedissonClient redissonClient;
 
     @Resource
-    private RedissonClient redissonClient;
+    private CaffeineUtil caffeineUtil;
+
+    static final String NETFLAV_HOST = "netflav.com";
 
     final String searchUrl = "https://netflav.com/api98/video/advanceSearchVideo?type=title&page=1&keyword=";
     final String videoUrl = "https://netflav.com/api98/video/v2/retrieveVideo/";
 
-    //匹配magnet是否包含[SUB]
-    final String patternString = "\\[HD](\\[SUB])?(.*)";
-    final Pattern pattern = Pattern.compile(patternString, Pattern.CASE_INSENSITIVE);
+    //视频详情两级缓存: 本地缓存解析后的记录, redis缓存原始返回结果
+    private TieredCacheLoader<JSONObject, NetflavVideo> videoLoader;
+
+    @PostConstruct
+    public void initVideoLoader() {
+        videoLoader = TieredCacheLoader.<JSONObject, NetflavVideo>builder()
+                .name("netflav")
+                .local(caffeineUtil.region("netflav"))
+                .ttl(Duration.ofHours(1))
+                .remote(redissonClient.getMapCache("netflav"))
+                .decoder(entries -> NetflavVideo.parse(entries.getStr("result")))
+                .loader(this::fetchVideoResponse)
+                .lockClient(redissonClient)
+                .lockWait(Duration.ofSeconds(15))
+                .lockLease(Duration.ofSeconds(30))
+                .build();
+    }
 
     /**
-     * 获取视频详情
+     * 从网络获取视频详情, 只在两级缓存都未命中时由 videoLoader 调用
      *
      * @param avNum 番号
-     * @return 视频详情
+     * @return 视频详情, 获取失败或netflav已熔断时返回null, 不会被缓存
      */
-    public JSONObject getVideoResponse(final String avNum) {
-        final JSONObject entries;
-        final RLock lock = redissonClient.getLock("lock::" + avNum);
+    private JSONObject fetchVideoResponse(final String avNum) {
+        //netflav已熔断时不等待网络请求, 返回null由调用方降级
+        if (CircuitBreakerRegistry.isOpen(NETFLAV_HOST)) {
+            log.info("netflav已熔断, 跳过获取 {} 的详情", avNum);
+            return null;
+        }
         try {
-            lock.lock();
-            //先从缓存中获取
-            final Optional<JSONObject> cache = caffeineUtil.get(avNum, JSONObject.class);
-            if (cache.isPresent()) {
-                log.info("从缓存中获取 {} 的详情", avNum);
-                return cache.get();
-            }
-            //从redis中获取
-            final RMapCache<String, JSONObject> mapCache = redissonClient.getMapCache("netflav");
-            final var redisCache = mapCache.get(avNum);
-            if (redisCache != null) {
-                log.info("从redis中获取 {} 的详情", avNum);
-                return redisCache;
-            }
             log.info("从网络中获取 {} 的详情", avNum);
             final JSONArray docs = getSearchResponse(avNum);
+            if (docs == null || docs.isEmpty()) {
+                return null;
+            }
             //获取第一个结果,即最匹配的结果
             final JSONObject videoEntity = docs.getJSONObject(0);
             //获取视频id
@@ -76,40 +82,33 @@ public class NetflavDetailsScraper {
             //发送请求
             final var videoResp = AsyncHttpClientUtil.doGet(videoUrl + videoId);
             //获取返回结果
-            entries = JSONUtil.parseObj(videoResp.getValue().getResponseBody());
-            if (!entries.isEmpty()) {
-                //缓存
-                log.info("缓存 {} 的详情", avNum);
-                mapCache.fastPutAsync(avNum, entries, 1, TimeUnit.HOURS);
-                caffeineUtil.put(avNum, entries, 1, TimeUnit.HOURS);
-            }
-            return entries;
+            final JSONObject entries = JSONUtil.parseObj(videoResp.getValue().getResponseBody());
+            return entries.isEmpty() ? null : entries;
         } catch (final Exception e) {
             log.error("获取视频详情失败", e);
             return null;
-        } finally {
-            lock.unlock();
         }
     }
 
+    /**
+     * 获取解析后的视频详情, 本地缓存命中时不加锁也不访问redis, 同一番号的各项信息都从中读取
+     *
+     * @param avNum 番号
+     * @return 视频详情, 获取失败(如netflav已熔断)时返回 {@link NetflavVideo#EMPTY}
+     */
+    public NetflavVideo getVideo(final String avNum) {
+        final NetflavVideo video = videoLoader.get(avNum);
+        return video == null ? NetflavVideo.EMPTY : video;
+    }
+
     /**
      * 获取视频链接
      *
      * @param avNum 番号
      * @return 视频链接
      */
-    @SneakyThrows
     public List<String> getVideoUrl(final String avNum) {
-        //获取返回结果
-        final JSONObject entries = getVideoResponse(avNum);
-        //获取视频链接
-        final String str = entries.getStr("result");
-        final String[] split = str.split("\\|");
-        return Arrays.stream(split)
-                .parallel()
-                .filter(s -> Stream.of("streamtape", "vidoza", "streamsb", "embedgram")
-                        .anyMatch(s::contains))
-                .toList();
+        return getVideo(avNum).videoUrls();
     }
 
     /**
@@ -119,18 +118,7 @@ public class NetflavDetailsScraper {
      * @return 视频封面
      */
     public String getPreviewHp(final String avNum) {
-        //获取返回结果
-        final JSONObject videoResponse = getVideoResponse(avNum);
-        //获取视频链接
-        final String str = videoResponse.getStr("result");
-        final String[] split = str.split("\\|");
-        for (int i = 0; i < split.length; i++) {
-            final String s = split[i];
-            if (s.contains("preview_hp")) {
-                return split[i + 1];
-            }
-        }
-        return null;
+        return getVideo(avNum).previewHp();
     }
 
     /**
@@ -140,24 +128,7 @@ public class NetflavDetailsScraper {
      * @return 预览图
      */
     public List<String> getPreviewImages(final String avNum) {
-        //获取返回结果
-        final JSONObject videoResponse = getVideoResponse(avNum);
-        //获取视频链接
-        final String str = videoResponse.getStr("result");
-        final String[] split = str.split("\\|");
-        int start = 0;
-        int end = start;
-        for (int i = 0; i < split.length; i++) {
-            final String s = split[i];
-            if (s.equals("previewImages")) {
-                start = i + 1;
-            }
-            if (s.equals("previewVideo")) {
-                end = i;
-                break;
-            }
-        }
-        return new ArrayList<>(Arrays.asList(split).subList(start, end));
+        return getVideo(avNum).previewImages();
     }
 
     /**
@@ -167,37 +138,7 @@ public class NetflavDetailsScraper {
      * @return 磁力链接
      */
     public Map<String, Set<String>> getMagnetLink(final String avNum) {
-        //获取返回结果
-        final JSONObject entries = getVideoResponse(avNum);
-        //获取视频链接
-        final String str = entries.getStr("result");
-        final String[] split = str.split("\\|");
-        //匹配magnet是否包含[SUB]
-        final var map = new HashMap<String, Set<String>>();
-        final var originalSet = new HashSet<String>();
-        final var filteredSet = new HashSet<String>();
-        for (int i = 0, splitLength = split.length; i < splitLength - 1; i++) { // changed splitLength to splitLength - 1 to avoid ArrayIndexOutOfBoundsException
-            final String s = split[i];
-            final Matcher matcher = pattern.matcher(s);
-            if (matcher.find()) {
-                final String subFlag = matcher.group(1);
-                if (subFlag == null) {
-//                    log.info("Doesn't contain [SUB]");
-                    originalSet.add(split[i + 1]);
-                } else {
-//                    log.info("Contains [SUB]");
-                    filteredSet.add(split[i + 1]);
-                }
-            }
-        }
-        if (CollUtil.isNotEmpty(originalSet)) {
-            map.put("HD", originalSet);
-        }
-        if (CollUtil.isNotEmpty(filteredSet)) {
-            map.put("HD[SUB]", filteredSet);
-        }
-        log.info("map:{}", map);
-        return map;
+        return getVideo(avNum).magnetLinks();
     }
 
     /**
@@ -207,22 +148,7 @@ public class NetflavDetailsScraper {
      * @return 视频时长
      */
     public int getDuration(final String avNum) {
-        //获取返回结果
-        final JSONObject entries = getVideoResponse(avNum);
-        //获取视频链接
-        final String str = entries.getStr("result");
-        final String[] split = str.split("\\|");
-        for (int i = 0; i < split.length; i++) {
-            final String s = split[i];
-            if (s.contains("duration")) {
-                final String s1 = extractNumber(split[i + 1]);
-                if (StrUtil.isNotBlank(s1)) {
-                    return Integer.parseInt(s1);
-                }
-                return 0;
-            }
-        }
-        return 0;
+        return getVideo(avNum).duration();
     }
 
     /**
@@ -232,35 +158,7 @@ public class NetflavDetailsScraper {
      * @return 视频标题
      */
     public String getDescription(final String avNum) {
-        //获取返回结果
-        final JSONObject entries = getVideoResponse(avNum);
-        //获取视频链接
-        final String str = entries.getStr("result");
-        final String[] split = str.split("\\|");
-        for (int i = 0; i < split.length; i++) {
-            final String s = split[i];
-            if (s.equals("description")) {
-                return split[i + 1];
-            }
-        }
-        return null;
-    }
-
-
-    /**
-     * 提取字符串中的数字 例如: "123abc456" -> "123456"
-     *
-     * @param input 输入字符串
-     * @return 提取后的字符串
-     */
-    public String extractNumber(final String input) {
-        final Pattern pattern = Pattern.compile("\\d+");
-        final Matcher matcher = pattern.matcher(input);
-        final StringBuilder result = new StringBuilder();
-        while (matcher.find()) {
-            result.append(matcher.group());
-        }
-        return result.toString();
+        return getVideo(avNum).description();
     }
 
     /**
@@ -270,6 +168,10 @@ public class NetflavDetailsScraper {
      * @return 搜索结果
      */
     public JSONArray getSearchResponse(final String searchParam) {
+        if (CircuitBreakerRegistry.isOpen(NETFLAV_HOST)) {
+            log.info("netflav已熔断, 跳过搜索 {}", searchParam);
+            return null;
+        }
         //发送请求
         final var responsePair = AsyncHttpClientUtil.doGet(searchUrl + searchParam);
         final JSONObject obj = JSONUtil.parseObj(responsePair.getValue().getResponseBody());
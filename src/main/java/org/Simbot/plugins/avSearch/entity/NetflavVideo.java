@@ -0,0 +1,111 @@
+package org.Simbot.plugins.avSearch.entity;
+
+import cn.hutool.core.util.StrUtil;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @author ：ycvk
+ * @description ：netflav视频详情, 由返回结果中以|分隔的result字段一次解析得到, 不可变, 可直接缓存
+ * @date ：2026/10/18 20:40
+ */
+public record NetflavVideo(List<String> videoUrls,
+                           String previewHp,
+                           List<String> previewImages,
+                           Map<String, Set<String>> magnetLinks,
+                           int duration,
+                           String description) {
+
+    public static final NetflavVideo EMPTY = new NetflavVideo(List.of(), null, List.of(), Map.of(), 0, null);
+
+    //在线播放地址包含的域名
+    private static final List<String> VIDEO_HOSTS = List.of("streamtape", "vidoza", "streamsb", "embedgram");
+    //匹配magnet是否包含[SUB]
+    private static final Pattern MAGNET_PATTERN = Pattern.compile("\\[HD](\\[SUB])?(.*)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("\\d+");
+
+    /**
+     * 解析result字段, 只遍历一次
+     *
+     * @param result 以|分隔的result字段
+     * @return 视频详情, result为空时返回 {@link #EMPTY}
+     */
+    public static NetflavVideo parse(final String result) {
+        if (StrUtil.isBlank(result)) {
+            return EMPTY;
+        }
+        final String[] split = result.split("\\|");
+        final List<String> videoUrls = new ArrayList<>();
+        final Set<String> magnetHd = new LinkedHashSet<>();
+        final Set<String> magnetSub = new LinkedHashSet<>();
+        String previewHp = null;
+        String description = null;
+        int duration = 0;
+        boolean durationFound = false;
+        int previewStart = 0;
+        int previewEnd = -1;
+        for (int i = 0; i < split.length; i++) {
+            final String s = split[i];
+            final String next = i + 1 < split.length ? split[i + 1] : null;
+            if (VIDEO_HOSTS.stream().anyMatch(s::contains)) {
+                videoUrls.add(s);
+            }
+            if (previewHp == null && next != null && s.contains("preview_hp")) {
+                previewHp = next;
+            }
+            if (previewEnd < 0) {
+                if (s.equals("previewImages")) {
+                    previewStart = i + 1;
+                } else if (s.equals("previewVideo")) {
+                    previewEnd = i;
+                }
+            }
+            if (next != null) {
+                final Matcher matcher = MAGNET_PATTERN.matcher(s);
+                if (matcher.find()) {
+                    (matcher.group(1) == null ? magnetHd : magnetSub).add(next);
+                }
+            }
+            if (!durationFound && next != null && s.contains("duration")) {
+                durationFound = true;
+                duration = parseDuration(next);
+            }
+            if (description == null && next != null && s.equals("description")) {
+                description = next;
+            }
+        }
+        final List<String> previewImages = previewEnd > previewStart
+                ? List.of(Arrays.copyOfRange(split, previewStart, previewEnd))
+                : List.of();
+        final Map<String, Set<String>> magnetLinks = new LinkedHashMap<>();
+        if (!magnetHd.isEmpty()) {
+            magnetLinks.put("HD", Collections.unmodifiableSet(magnetHd));
+        }
+        if (!magnetSub.isEmpty()) {
+            magnetLinks.put("HD[SUB]", Collections.unmodifiableSet(magnetSub));
+        }
+        return new NetflavVideo(List.copyOf(videoUrls), previewHp, previewImages,
+                Collections.unmodifiableMap(magnetLinks), duration, description);
+    }
+
+    /**
+     * 提取字符串中的数字作为时长 例如: "123abc456" -> 123456
+     */
+    private static int parseDuration(final String input) {
+        final Matcher matcher = NUMBER_PATTERN.matcher(input);
+        final StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            result.append(matcher.group());
+        }
+        if (result.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(result.toString());
+        } catch (final NumberFormatException e) {
+            return 0;
+        }
+    }
+}
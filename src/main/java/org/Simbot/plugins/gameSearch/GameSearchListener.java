@@ -22,9 +22,12 @@ import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -36,6 +39,9 @@ import java.util.concurrent.TimeUnit;
 @Component
 public class GameSearchListener {
 
+    //DLC和截图下载的整体截止时间
+    private static final Duration IMAGE_DEADLINE = Duration.ofSeconds(10);
+
     @Listener
     @Filter(value = "/game ", matchType = MatchType.TEXT_STARTS_WITH)
     @SneakyThrows
@@ -50,7 +56,7 @@ public class GameSearchListener {
             return;
         }
         //获取游戏图片
-        final var stream = IOThreadPool.submit(() -> AsyncHttpClientUtil.downloadImage(searchEntity.getImage(), false, true, 0.5f));
+        final var stream = AsyncHttpClientUtil.downloadCachedImageAsync(searchEntity.getImage(), false, true, 0.5f);
 
         //构建转发消息链
         final var chain = new MiraiForwardMessageBuilder(ForwardMessage.DisplayStrategy.Default);
@@ -103,7 +109,7 @@ public class GameSearchListener {
         if (CollUtil.isNotEmpty(dlcs)) {
             chain.add(event.getBot(), "↘ ↓ ↓DLC列表↓ ↓ ↙\n");
             final List<MessagesBuilder> dlcList = buildDlcList(dlcs);
-            dlcList.parallelStream().forEach(dlc -> chain.add(event.getBot(), dlc.build()));
+            dlcList.forEach(dlc -> chain.add(event.getBot(), dlc.build()));
         }
         //如果有截图，显示截图
         if (CollUtil.isNotEmpty(gameInfo.getScreenshots())) {
@@ -181,36 +187,47 @@ public class GameSearchListener {
     }
 
     /**
-     * 构建DLC消息列表
+     * 构建DLC消息列表, 只有图片受截止时间限制, 图片超时或下载失败的DLC仍然列出名称和价格
      *
      * @param dlcs dlc列表
      * @return 消息列表
      */
     public List<MessagesBuilder> buildDlcList(final List<GameDlc> dlcs) {
-        return dlcs.parallelStream()
+        final List<GameDlc> named = dlcs.stream()
                 .filter(dlc -> StrUtil.isNotBlank(dlc.getName()))
-                .map(this::buildDlcBuilder).toList();
+                .toList();
+        final List<CompletableFuture<ByteArrayInputStream>> images = named.stream()
+                .map(dlc -> AsyncHttpClientUtil.downloadCachedImageAsync(dlc.getImage(), false, true, 0.5f)
+                        .exceptionally(throwable -> null)
+                        .completeOnTimeout(null, IMAGE_DEADLINE.toMillis(), TimeUnit.MILLISECONDS))
+                .toList();
+        CompletableFuture.allOf(images.toArray(CompletableFuture[]::new)).join();
+        final List<MessagesBuilder> result = new ArrayList<>(named.size());
+        for (int i = 0; i < named.size(); i++) {
+            result.add(buildDlcBuilder(named.get(i), images.get(i).join()));
+        }
+        return result;
     }
 
     /**
      * 构建单个DLC消息
      *
-     * @param dlc dlc
+     * @param dlc    dlc
+     * @param stream dlc图片, 没有图片或下载失败时为null
      * @return 消息
      */
-    @SneakyThrows
-    private MessagesBuilder buildDlcBuilder(final GameDlc dlc) {
+    private MessagesBuilder buildDlcBuilder(final GameDlc dlc, final ByteArrayInputStream stream) {
         final MessagesBuilder builder = new MessagesBuilder();
-        final ByteArrayInputStream stream = AsyncHttpClientUtil.downloadImage(dlc.getImage(), false, true, 0.5f);
-        final GamePrice price = dlc.getPrice();
-        final MessagesBuilder priceBuilder = buildPriceBuilder(price);
-        Optional.ofNullable(stream).ifPresent(s -> {
+        final MessagesBuilder priceBuilder = buildPriceBuilder(dlc.getPrice());
+        if (stream == null) {
+            log.warn("此dlc没有图片或图片下载失败: {}", dlc.getName());
+        } else {
             try {
                 builder.image(Resource.of(stream)).text("\n");
             } catch (final IOException e) {
                 log.error("此dlc没有图片或图片下载失败", e);
             }
-        });
+        }
         builder.text("DLC名称：").text(dlc.getName()).text("\n")
         ;
         if (priceBuilder != null) {
@@ -226,33 +243,33 @@ public class GameSearchListener {
      * @return 消息列表
      */
     private MessagesBuilder buildGameScreenshotList(final List<GameScreenshot> screenshots) {
-        return Optional.ofNullable(screenshots)
+        final List<GameScreenshot> limited = Optional.ofNullable(screenshots)
                 .orElse(Collections.emptyList())
-                .subList(0, Math.min(screenshots.size(), 8))
-                .parallelStream()
-                .map(this::buildGameScreenshot)
-                .reduce((a, b) -> {
-                    a.append(b.build());
-                    return a;
-                }).orElse(null);
+                .stream()
+                .limit(8)
+                .toList();
+        final List<ByteArrayInputStream> streams = AsyncHttpClientUtil.fetchAll(limited,
+                gameScreenshot -> AsyncHttpClientUtil.downloadCachedImageAsync(gameScreenshot.getThumbnail(), false, true, 0.5f),
+                IMAGE_DEADLINE).join();
+        if (streams.isEmpty()) {
+            return null;
+        }
+        final MessagesBuilder builder = new MessagesBuilder();
+        streams.forEach(stream -> buildGameScreenshot(builder, stream));
+        return builder;
     }
 
     /**
      * 构建游戏截图消息
      *
-     * @param gameScreenshot 游戏截图
-     * @return 消息
+     * @param builder 消息
+     * @param stream  游戏截图
      */
-    private MessagesBuilder buildGameScreenshot(final GameScreenshot gameScreenshot) {
-        final MessagesBuilder builder = new MessagesBuilder();
-        final ByteArrayInputStream stream = AsyncHttpClientUtil.downloadImage(gameScreenshot.getThumbnail(), false, true, 0.5f);
-        Optional.ofNullable(stream).ifPresent(s -> {
-            try {
-                builder.image(Resource.of(stream)).text("\n");
-            } catch (final IOException e) {
-                log.error("此游戏没有图片或图片下载失败", e);
-            }
-        });
-        return builder;
+    private void buildGameScreenshot(final MessagesBuilder builder, final ByteArrayInputStream stream) {
+        try {
+            builder.image(Resource.of(stream)).text("\n");
+        } catch (final IOException e) {
+            log.error("此游戏没有图片或图片下载失败", e);
+        }
     }
 }
@@ -12,7 +12,8 @@ import org.Simbot.plugins.gameSearch.entity.BlackBoxSearchEntity;
 import org.Simbot.plugins.gameSearch.entity.GameInfo;
 import org.Simbot.plugins.gameSearch.entity.GameOnlineData;
 import org.Simbot.utils.AsyncHttpClientUtil;
-import org.jsoup.Jsoup;
+import org.Simbot.utils.cache.NegativeCache;
+import org.Simbot.utils.http.HedgePolicy;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.nodes.TextNode;
@@ -32,6 +33,8 @@ public class SteamSearchScraper {
     private static final String BLACK_BOX_NAME_URL = "https://api.xiaoheihe.cn/bbs/app/api/general/search/v1?search_type=game&q=";
     private static final String BLACK_BOX_ID_URL = "https://api.xiaoheihe.cn/game/get_game_detail/?h_src=game_rec_a&appid=";
     private static final String BLACK_BOX_INTRODUCTION_URL = "https://api.xiaoheihe.cn/game/game_introduction?steam_appid=";
+    //空结果缓存的数据源
+    private static final String NEGATIVE_SOURCE = "steam";
 
     /**
      * 根据游戏名搜索游戏
@@ -40,11 +43,15 @@ public class SteamSearchScraper {
      * @return 游戏信息
      */
     public static BlackBoxSearchEntity searchByName(final String name) {
-        final var pair = AsyncHttpClientUtil.doGet(BLACK_BOX_NAME_URL + name);
-        final String body = pair.getValue().getResponseBody();
+        if (NegativeCache.isMissing(NEGATIVE_SOURCE, name)) {
+            return null;
+        }
+        //小黑盒接口尾延迟较高, 使用对冲请求
+        final String body = AsyncHttpClientUtil.doGetHedged(BLACK_BOX_NAME_URL + name, null, HedgePolicy.DEFAULT).join().getResponseBody();
         final JSONObject entries = JSONUtil.parseObj(body);
         final JSONArray array = entries.getJSONObject("result").getJSONArray("items");
         if (array.isEmpty()) {
+            NegativeCache.markMissing(NEGATIVE_SOURCE, name);
             return null;
         }
         try {
@@ -62,8 +69,7 @@ public class SteamSearchScraper {
      * @return 游戏信息
      */
     public static GameInfo searchByGameId(final int gameId) {
-        final var responsePair = AsyncHttpClientUtil.doGet(BLACK_BOX_ID_URL + gameId);
-        final String body = responsePair.getValue().getResponseBody();
+        final String body = AsyncHttpClientUtil.doGetHedged(BLACK_BOX_ID_URL + gameId, null, HedgePolicy.DEFAULT).join().getResponseBody();
         final JSONObject entries = JSONUtil.parseObj(body);
         final JSONObject result = entries.getJSONObject("result");
         final List<GameOnlineData> list = result.getJSONObject("user_num").getBeanList("game_data", GameOnlineData.class);
@@ -80,7 +86,7 @@ public class SteamSearchScraper {
      */
     @SneakyThrows
     public static String searchIntroductionById(final int gameId) {
-        final Document document = Jsoup.connect(BLACK_BOX_INTRODUCTION_URL + gameId).get();
+        final Document document = AsyncHttpClientUtil.getDocument(BLACK_BOX_INTRODUCTION_URL + gameId);
         //获取  <div class="content">中的内容
         final Element first = document.select(".content").first();
         return first != null ? processElement(first) : null;
@@ -119,6 +125,4 @@ public class SteamSearchScraper {
         ;
         return builder.build();
     }
-
-    }
 }
@@ -1,23 +1,22 @@
 package org.Simbot.plugins.magnet;
 
-import cn.hutool.core.lang.Pair;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.Simbot.plugins.magnet.entity.MagnetSearchEntity;
 import org.Simbot.utils.AsyncHttpClientUtil;
-import org.Simbot.utils.CaffeineUtil;
-import org.asynchttpclient.Request;
-import org.asynchttpclient.Response;
+import org.Simbot.utils.cache.NearCache;
+import org.Simbot.utils.cache.NearCacheManager;
+import org.Simbot.utils.cache.NegativeCache;
 import org.jetbrains.annotations.NotNull;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
 import org.jsoup.select.Elements;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * @author ：ycvk
@@ -29,42 +28,113 @@ import java.util.Optional;
 public class MagnetScraper {
 
     private static final String SEARCH_URL = "https://sukebei.nyaa.si?c=0_0&f=0&q=";
+    //空结果缓存的数据源
+    private static final String NEGATIVE_SOURCE = "magnet";
+    //单独解析结果行时的上下文标签
+    private static final String ROW_CONTEXT = "tbody";
+    //没有搜索结果时页面的提示, 用于区分确实没有结果和异常页面
+    private static final String NO_RESULTS = "No results found";
 //    private static final String USER_AGENT = "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/116.0.0.0 Safari/537.36";
 
     @Resource
-    private CaffeineUtil caffeineUtil;
+    private NearCacheManager nearCacheManager;
+
+    //搜索结果缓存, 多个实例共享
+    private NearCache<List<MagnetSearchEntity>> searchCache;
+
+    @PostConstruct
+    public void initCache() {
+        searchCache = nearCacheManager.region("magnet", Duration.ofHours(1));
+    }
 
-    @SneakyThrows
     public List<MagnetSearchEntity> magnetSearch(final String keyword) {
-        final Document document;
-        final Optional<Document> result = caffeineUtil.get(keyword, Document.class);
-        if (result.isPresent()) {
-            document = result.get();
-        } else {
-            final Pair<Request, Response> responsePair = AsyncHttpClientUtil.doGet(SEARCH_URL + keyword);
-            final String body = responsePair.getValue().getResponseBody();
-            document = Jsoup.parse(body);
-//            document = Jsoup.connect(SEARCH_URL + keyword).userAgent(USER_AGENT).get();
-            caffeineUtil.put(keyword, document);
+        if (NegativeCache.isMissing(NEGATIVE_SOURCE, keyword)) {
+            return List.of();
         }
+        final List<MagnetSearchEntity> result;
         try {
-            final Element table = document.select("table.torrent-list").first();
-            final Elements rows = table.select("tbody > tr");
-            return rows.parallelStream().map(this::getMagnetSearchEntity).toList();
+            result = searchCache.get(keyword, this::searchFromNetwork);
         } catch (final Exception e) {
+            //超时、熔断、5xx或异常页面, 不能确定没有结果, 不记录空结果
             log.error("magnetSearch error", e);
             return List.of();
         }
+        if (result.isEmpty()) {
+            //只有页面确实没有结果行时才会返回空列表; 空结果不会写入searchCache, 单独记录较短时间
+            NegativeCache.markMissing(NEGATIVE_SOURCE, keyword);
+        }
+        return result;
+    }
+
+    /**
+     * 从网络搜索并解析结果, 缓存的是解析后的结果而不是整个页面
+     *
+     * @param keyword 关键词
+     * @return 搜索结果, 页面确实没有结果时返回空列表; 请求失败或页面异常时抛出异常, 不写入缓存
+     */
+    private List<MagnetSearchEntity> searchFromNetwork(final String keyword) {
+        return parseRows(AsyncHttpClientUtil.getHtml(SEARCH_URL + keyword));
+    }
+
+    /**
+     * 只扫描结果表格的tbody, 逐行截取{@code <tr>...</tr>}并单独解析, 不构建整个页面的DOM,
+     * 每行解析完即可回收
+     *
+     * @param html 搜索页源码
+     * @return 搜索结果, 转为ArrayList便于redis序列化
+     * @throws IllegalStateException 页面既没有结果表格也没有无结果提示时, 如验证页或维护页
+     */
+    private List<MagnetSearchEntity> parseRows(final String html) {
+        final List<MagnetSearchEntity> result = new ArrayList<>();
+        final int table = html.indexOf("torrent-list");
+        final int bodyStart = table < 0 ? -1 : html.indexOf("<tbody", table);
+        if (bodyStart < 0) {
+            if (html.contains(NO_RESULTS)) {
+                return result;
+            }
+            throw new IllegalStateException("磁力搜索页面没有结果表格");
+        }
+        final int bodyEnd = html.indexOf("</tbody>", bodyStart);
+        final int end = bodyEnd < 0 ? html.length() : bodyEnd;
+        int pos = bodyStart;
+        while (true) {
+            final int rowStart = html.indexOf("<tr", pos);
+            if (rowStart < 0 || rowStart >= end) {
+                break;
+            }
+            final int closing = html.indexOf("</tr>", rowStart);
+            final int rowEnd = closing < 0 || closing > end ? end : closing + "</tr>".length();
+            final Element row = parseRow(html.substring(rowStart, rowEnd));
+            if (row != null) {
+                result.add(getMagnetSearchEntity(row));
+            }
+            pos = rowEnd;
+        }
+        return result;
+    }
+
+    /**
+     * 以tbody为上下文解析单行, 否则tr和td会被当作非法标签丢弃
+     */
+    private Element parseRow(final String rowHtml) {
+        return Parser.parseFragment(rowHtml, new Element(ROW_CONTEXT), SEARCH_URL).stream()
+                .filter(Element.class::isInstance)
+                .map(Element.class::cast)
+                .findFirst()
+                .orElse(null);
     }
 
     @NotNull
     private MagnetSearchEntity getMagnetSearchEntity(final Element row) {
-        final String videoLink = row.select("td > a[href*=view]").attr("href");
-        final String videoTitle = row.select("td > a[href*=view]").attr("title");
+        //跳过评论数链接, 它同样指向view页面
+        final Element view = row.selectFirst("td > a[href*=view]:not(.comments)");
+        final String videoLink = view == null ? "" : view.attr("href");
+        final String videoTitle = view == null ? "" : view.attr("title");
         final String magnetLink = row.select("td > a[href*=magnet]").attr("href").replaceAll("&dn=.*$", "");
-        final String seeders = row.select("td.text-center").get(3).text();
-        final String leechers = row.select("td.text-center").get(4).text();
-        final String timestamp = row.select("td.text-center[data-timestamp]").text();
+        final Elements cells = row.select("td.text-center");
+        final String timestamp = cells.select("[data-timestamp]").text();
+        final String seeders = cells.size() > 3 ? cells.get(3).text() : "";
+        final String leechers = cells.size() > 4 ? cells.get(4).text() : "";
         return new MagnetSearchEntity(videoLink, videoTitle, magnetLink, seeders, leechers, timestamp);
     }
 }
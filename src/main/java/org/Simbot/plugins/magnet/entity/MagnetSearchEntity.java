@@ -1,27 +1,25 @@
 package org.Simbot.plugins.magnet.entity;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Value;
 
 /**
  * @author ：ycvk
- * @description ：磁力搜索结果实体类
+ * @description ：磁力搜索结果实体类, 不可变, 可以在缓存中直接共享
  * @date ：2023/09/07 21:48
  */
-@Data
-@AllArgsConstructor
+@Value
 public class MagnetSearchEntity {
 
     //地址
-    private String videoLink;
+    String videoLink;
     //标题
-    private String videoTitle;
+    String videoTitle;
     //磁力链接
-    private String magnetLink;
+    String magnetLink;
     //做种人数
-    private String seeders;
+    String seeders;
     //下载人数
-    private String leechers;
+    String leechers;
     //发布时间
-    private String timestamp;
+    String timestamp;
 }
@@ -15,6 +15,7 @@ import net.mamoe.mirai.message.data.MusicKind;
 import net.mamoe.mirai.message.data.MusicShare;
 import org.Simbot.utils.AsyncHttpClientUtil;
 import org.Simbot.utils.SendMsgUtil;
+import org.Simbot.utils.http.HedgePolicy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -39,12 +40,13 @@ public class CloudMusic {
     @Filter(value = "/music {{text}}", matchType = MatchType.REGEX_CONTAINS)
     public void sendMusic(final GroupMessageEvent event, @FilterValue("text") final String text) {
 
-        final var responsePair = AsyncHttpClientUtil.doGet(musicApi, builder -> {
+        //点歌接口尾延迟较高, 使用对冲请求
+        final var response = AsyncHttpClientUtil.doGetHedged(musicApi, builder -> {
             builder.addQueryParam("msg", text.trim())
                     .addQueryParam("type", "json");
-        });
+        }, HedgePolicy.DEFAULT).join();
 
-        final String body = responsePair.getValue().getResponseBody();
+        final String body = response.getResponseBody();
         final JSONObject entries = JSONUtil.parseObj(body);
         if (entries.getInt("code") != 200) {
             final var receipt = event.replyBlocking("未找到相关歌曲");
@@ -76,12 +78,12 @@ public class CloudMusic {
     }
 
     SimbotOriginalMiraiMessage getMusic(final String text, final String num) {
-        final var responsePair = AsyncHttpClientUtil.doGet(musicApi, builder -> {
+        final var response = AsyncHttpClientUtil.doGetHedged(musicApi, builder -> {
             builder.addQueryParam("msg", text.trim())
                     .addQueryParam("type", "json")
                     .addQueryParam("n", num);
-        });
-        final String body = responsePair.getValue().getResponseBody();
+        }, HedgePolicy.DEFAULT).join();
+        final String body = response.getResponseBody();
         final JSONObject entries = JSONUtil.parseObj(body);
 
         //获取歌曲信息
@@ -11,18 +11,16 @@ import love.forte.simbot.event.GroupMessageEvent;
 import love.forte.simbot.message.MessagesBuilder;
 import love.forte.simbot.resources.Resource;
 import net.mamoe.mirai.message.data.ForwardMessage;
-import org.Simbot.config.threadpool.IOThreadPool;
 import org.Simbot.plugins.rss.erbing.entity.ErBingNews;
 import org.Simbot.utils.AsyncHttpClientUtil;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayInputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 
 /**
  * @author ：ycvk
@@ -66,10 +64,9 @@ public class ErBingNewsListener {
         final MessagesBuilder builder = new MessagesBuilder();
         final StringBuilder stringBuilder = new StringBuilder();
         final List<String> img = news.getImg();
-        List<Future<ByteArrayInputStream>> list = null;
+        CompletableFuture<List<ByteArrayInputStream>> images = null;
         if (CollUtil.isNotEmpty(img)) {
-            list = img.parallelStream().map(this::downloadImage)
-                    .toList();
+            images = AsyncHttpClientUtil.fetchAll(img, this::downloadImage, Duration.ofSeconds(15));
         }
 
         stringBuilder.append(news.getTitle()).append("\n")
@@ -78,10 +75,9 @@ public class ErBingNewsListener {
 
         builder.text(stringBuilder.toString());
 
-        if (CollUtil.isNotEmpty(list)) {
-            for (final Future<ByteArrayInputStream> future : list) {
+        if (images != null) {
+            for (final ByteArrayInputStream stream : images.join()) {
                 try {
-                    final ByteArrayInputStream stream = future.get(15, TimeUnit.SECONDS);
                     builder.image(Resource.of(stream));
                 } catch (final Exception e) {
                     log.error("下载图片失败", e);
@@ -93,7 +89,7 @@ public class ErBingNewsListener {
         return builder;
     }
 
-    Future<ByteArrayInputStream> downloadImage(final String url) {
-        return IOThreadPool.submit(() -> AsyncHttpClientUtil.downloadImage(url, false));
+    CompletableFuture<ByteArrayInputStream> downloadImage(final String url) {
+        return AsyncHttpClientUtil.downloadImageAsync(url, false);
     }
 }
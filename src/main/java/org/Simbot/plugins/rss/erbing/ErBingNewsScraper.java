@@ -2,19 +2,20 @@ package org.Simbot.plugins.rss.erbing;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.DateUtil;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.rometools.rome.feed.synd.SyndEntry;
 import com.rometools.rome.feed.synd.SyndFeed;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.Simbot.plugins.rss.erbing.entity.ErBingNews;
-import org.Simbot.utils.CaffeineUtil;
 import org.Simbot.utils.XmlUtil;
+import org.Simbot.utils.cache.NearCache;
+import org.Simbot.utils.cache.NearCacheManager;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 /**
  * @author ：ycvk
@@ -28,19 +29,27 @@ public class ErBingNewsScraper {
     private static final String ERBING_NEWS_URL = "https://rsshub.app/diershoubing/news";
 
     @Resource
-    private CaffeineUtil caffeineUtil;
+    private NearCacheManager nearCacheManager;
+
+    //最新新闻的缓存key, 由后台刷新保持最新, 不再按日期区分
+    private static final String LATEST_KEY = "latest";
+
+    //新闻缓存, 多个实例共享, 写入20分钟后在后台刷新, 用户请求始终命中缓存
+    private NearCache<List<ErBingNews>> newsCache;
+
+    @PostConstruct
+    public void initCache() {
+        newsCache = nearCacheManager.region("erBingNews", Duration.ofDays(1), Duration.ofMinutes(20));
+    }
 
     public List<ErBingNews> getErBingNewsList() {
-        final var news = caffeineUtil.get(DateUtil.today(), new TypeReference<List<ErBingNews>>() {
-        });
-        if (news.isPresent()) {
-            log.info("Get data from cache");
-            return news.get();
-        }
+        return newsCache.get(LATEST_KEY, key -> getErBingNewsListFromNetwork());
+    }
+
+    private List<ErBingNews> getErBingNewsListFromNetwork() {
         final SyndFeed feed = XmlUtil.getXmlFeedFromUrl(ERBING_NEWS_URL);
         final List<SyndEntry> entries = feed.getEntries();
         final List<ErBingNews> bingNews = feedEntryToErBingNews(entries);
-        caffeineUtil.put(DateUtil.today(), bingNews, 1, TimeUnit.HOURS);
         log.info("Get data from network");
         return bingNews;
     }
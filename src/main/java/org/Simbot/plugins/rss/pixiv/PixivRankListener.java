@@ -13,17 +13,17 @@ import love.forte.simbot.event.GroupMessageEvent;
 import love.forte.simbot.message.MessagesBuilder;
 import love.forte.simbot.resources.Resource;
 import net.mamoe.mirai.message.data.ForwardMessage;
-import org.Simbot.config.threadpool.IOThreadPool;
 import org.Simbot.plugins.rss.pixiv.entity.Pixiv;
 import org.Simbot.utils.AsyncHttpClientUtil;
 import org.Simbot.utils.SendMsgUtil;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author ：ycvk
@@ -35,6 +35,11 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class PixivRankListener {
 
+    //整个排行榜消息的截止时间, 超时的条目不发送
+    private static final Duration RANK_DEADLINE = Duration.ofSeconds(90);
+    //单个作品预览图的截止时间
+    private static final Duration IMAGE_DEADLINE = Duration.ofMinutes(1);
+
     private final PixivRankScraper pixivRankScraper;
 
     @Listener
@@ -53,58 +58,50 @@ public class PixivRankListener {
         SendMsgUtil.withdrawMessage(event.replyBlocking("正在查询，请稍后..."), 15);
         //构建消息链
         final var chain = new MiraiForwardMessageBuilder(ForwardMessage.DisplayStrategy.Default);
-        //构建消息
-        rankList.parallelStream()
-                .limit(10)
-                .map(this::buildMessage)
-                .forEachOrdered(messagesBuilder -> chain.add(event.getBot(), messagesBuilder.build()));
+        //构建消息, 图片均异步下载, 最后按排名顺序组装
+        final List<MessagesBuilder> messages = AsyncHttpClientUtil.fetchAll(rankList.stream().limit(10).toList(),
+                this::buildMessage, RANK_DEADLINE).join();
+        messages.forEach(messagesBuilder -> chain.add(event.getBot(), messagesBuilder.build()));
         //发送消息
         event.getSource().sendBlocking(chain.build());
     }
 
-    MessagesBuilder buildMessage(final Pixiv pixiv) {
-        final MessagesBuilder builder = new MessagesBuilder();
+    CompletableFuture<MessagesBuilder> buildMessage(final Pixiv pixiv) {
         final String stringBuilder = "名称: " + pixiv.getTitle() + "\n" +
                 "作者: " + pixiv.getAuthor() + "\n" +
                 "访问量: " + pixiv.getReadNum() + "\n" +
                 "收藏量: " + pixiv.getCollectNum() + "\n" +
                 "链接: " + pixiv.getLink() + "\n";
-        builder.text(stringBuilder);
         final List<String> imgLink = pixiv.getImgLink();
         log.info("开始下载图片: {}", pixiv.getTitle());
-        final MessagesBuilder imgMessage = buildImgMessage(imgLink);
-        if (imgMessage != null) {
-            builder.append("预览图: \n")
-                    .append(imgMessage.build());
-        }
-        log.info("下载图片完成: {}", pixiv.getTitle());
-        return builder;
+        return buildImgMessage(imgLink).thenApply(imgMessage -> {
+            final MessagesBuilder builder = new MessagesBuilder();
+            builder.text(stringBuilder);
+            if (imgMessage != null) {
+                builder.append("预览图: \n")
+                        .append(imgMessage.build());
+            }
+            log.info("下载图片完成: {}", pixiv.getTitle());
+            return builder;
+        });
     }
 
-    MessagesBuilder buildImgMessage(final List<String> imgLink) {
+    CompletableFuture<MessagesBuilder> buildImgMessage(final List<String> imgLink) {
         if (CollUtil.isEmpty(imgLink)) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
-        final MessagesBuilder builder = new MessagesBuilder();
-        imgLink.stream()
-                .limit(3)
-                .map(s -> IOThreadPool.submit(() -> AsyncHttpClientUtil.downloadImage(s, true, true, 0.6f)))
-                .map(s -> {
-                    try {
-                        return s.get(1, TimeUnit.MINUTES);
-                    } catch (final Exception e) {
-                        log.error("图片下载失败", e);
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .forEach(bytes -> {
-                    try {
-                        builder.image(Resource.of(bytes));
-                    } catch (final IOException e) {
-                        log.error("图片下载失败", e);
+        return AsyncHttpClientUtil.fetchAll(imgLink.stream().limit(3).toList(),
+                        s -> AsyncHttpClientUtil.downloadImageAsync(s, true, true, 0.6f), IMAGE_DEADLINE)
+                .thenApply(streams -> {
+                    final MessagesBuilder builder = new MessagesBuilder();
+                    for (final ByteArrayInputStream bytes : streams) {
+                        try {
+                            builder.image(Resource.of(bytes));
+                        } catch (final IOException e) {
+                            log.error("图片下载失败", e);
+                        }
                     }
+                    return builder;
                 });
-        return builder;
     }
 }
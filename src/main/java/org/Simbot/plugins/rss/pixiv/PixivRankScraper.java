@@ -2,21 +2,20 @@ package org.Simbot.plugins.rss.pixiv;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.rometools.rome.feed.synd.SyndEntry;
 import com.rometools.rome.feed.synd.SyndFeed;
-import com.rometools.rome.io.SyndFeedInput;
-import com.rometools.rome.io.XmlReader;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.Simbot.plugins.rss.pixiv.entity.Pixiv;
 import org.Simbot.plugins.rss.pixiv.entity.RankType;
-import org.Simbot.utils.AsyncHttpClientUtil;
-import org.Simbot.utils.CaffeineUtil;
+import org.Simbot.utils.XmlUtil;
+import org.Simbot.utils.cache.NearCache;
+import org.Simbot.utils.cache.NearCacheManager;
 import org.springframework.stereotype.Component;
 
-import java.io.InputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -36,18 +35,22 @@ public class PixivRankScraper {
     private final Pattern imgPattern = Pattern.compile("src=\"(https[^\"]+)\"");
 
     @Resource
-    private CaffeineUtil caffeineUtil;
+    private NearCacheManager nearCacheManager;
 
-    @SneakyThrows
-    public List<Pixiv> getRankList(final String type, final String date) {
+    //排行榜缓存, 多个实例共享, 写入30分钟后在后台刷新, 用户请求始终命中缓存
+    private NearCache<List<Pixiv>> rankCache;
 
-        final var pixivs = caffeineUtil.get(type + ":" + date, new TypeReference<List<Pixiv>>() {
-        });
-        if (pixivs.isPresent()) {
-            log.info("Get data from cache");
-            return pixivs.get();
-        }
+    @PostConstruct
+    public void initCache() {
+        rankCache = nearCacheManager.region("pixivRank", Duration.ofDays(1), Duration.ofMinutes(30));
+    }
 
+    public List<Pixiv> getRankList(final String type, final String date) {
+        return rankCache.get(type + ":" + date, key -> getRankListFromNetwork(type, date));
+    }
+
+    @SneakyThrows
+    private List<Pixiv> getRankListFromNetwork(final String type, final String date) {
         final SyndFeed feed = getRankRssData(type, date);
         final List<SyndEntry> entries = feed.getEntries();
 
@@ -57,9 +60,9 @@ public class PixivRankScraper {
                 .toList();
 
         if (CollUtil.isNotEmpty(list)) {
-            caffeineUtil.put(type + ":" + date, list);
             log.info("Get data from network");
-            return list;
+            //转为ArrayList, 便于redis序列化
+            return new ArrayList<>(list);
         }
         return List.of();
     }
@@ -73,8 +76,7 @@ public class PixivRankScraper {
         }
         final String url = RANK_URL + typeData + "/" + date;
         log.info("rss url:{}", url);
-        final InputStream stream = AsyncHttpClientUtil.doGet(url).getValue().getResponseBodyAsStream();
-        return new SyndFeedInput().build(new XmlReader(stream));
+        return XmlUtil.getXmlFeedFromUrl(url);
     }
 
     private Pixiv parseEntryToPixiv(final SyndEntry entry) {
@@ -17,7 +17,9 @@ import org.Simbot.utils.SendMsgUtil;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -31,6 +33,9 @@ import java.util.Optional;
 @Slf4j
 public class MagnetPreviewSearchListener {
 
+    //预览图下载的整体截止时间
+    private static final Duration PREVIEW_DEADLINE = Duration.ofSeconds(20);
+
     @Listener
     @Filter(value = "/磁力 ", matchType = MatchType.TEXT_STARTS_WITH)
     @SneakyThrows
@@ -60,20 +65,25 @@ public class MagnetPreviewSearchListener {
                 .append("预览图 : ").append("\n");
 
         builder.text(stringBuilder.toString());
-        Optional.ofNullable(screenshots)
+        //并发下载预览图, 按原顺序依次追加到消息中, 避免多线程同时修改builder
+        final List<String> urls = Optional.ofNullable(screenshots)
                 .orElse(Collections.emptyList())
-                .parallelStream()
+                .stream()
                 .map(Screenshots::getScreenshot)
                 .filter(StrUtil::isNotBlank)
-                .map(AsyncHttpClientUtil::downloadImage)
-                .forEach(inputStream -> {
-                    try {
-                        builder.image(Resource.of(inputStream));
-                    } catch (final IOException e) {
-                        builder.text("下载图片失败");
-                        log.error("下载图片失败", e);
-                    }
-                });
+                .toList();
+        final List<ByteArrayInputStream> streams = AsyncHttpClientUtil.fetchAll(urls, AsyncHttpClientUtil::downloadImageAsync, PREVIEW_DEADLINE).join();
+        for (final ByteArrayInputStream inputStream : streams) {
+            try {
+                builder.image(Resource.of(inputStream));
+            } catch (final IOException e) {
+                builder.text("下载图片失败");
+                log.error("下载图片失败", e);
+            }
+        }
+        if (streams.size() < urls.size()) {
+            builder.text("\n" + (urls.size() - streams.size()) + " 张预览图下载失败或超时");
+        }
         //发送消息
         event.getSource().sendBlocking(builder.build());
     }
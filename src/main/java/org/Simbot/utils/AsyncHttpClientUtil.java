@@ -8,22 +8,46 @@ import io.netty.channel.kqueue.KQueueEventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.Simbot.config.threadpool.CPUThreadPool;
+import org.Simbot.utils.http.CircuitBreaker;
+import org.Simbot.utils.http.CircuitBreakerRegistry;
+import org.Simbot.utils.http.CircuitOpenException;
+import org.Simbot.utils.http.CompletableListenableFuture;
+import org.Simbot.utils.http.HedgePolicy;
+import org.Simbot.utils.http.HostThrottle;
+import org.Simbot.utils.http.HostThrottleRegistry;
+import org.Simbot.utils.http.HttpStatusException;
+import org.Simbot.utils.http.LatencyTracker;
+import org.Simbot.utils.http.RetryBudget;
+import org.Simbot.utils.http.RetryPolicy;
+import org.Simbot.utils.image.ImageByteMutator;
+import org.Simbot.utils.image.ImageDiskCache;
+import org.Simbot.utils.image.ImageScaler;
 import org.asynchttpclient.*;
 import org.asynchttpclient.netty.ws.NettyWebSocket;
 import org.asynchttpclient.ws.WebSocketUpgradeHandler;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static org.asynchttpclient.Dsl.asyncHttpClient;
 
@@ -44,6 +68,18 @@ public class AsyncHttpClientUtil {
     private static final AsyncHttpClient client;
     private static EventLoopGroup eventLoopGroup;
 
+    //默认浏览器UA, 部分站点会拒绝非浏览器请求
+    public static final String DEFAULT_USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/116.0.0.0 Safari/537.36";
+
+    //进行中的GET请求, key为method+url+全部请求头, 相同请求共享同一个future
+    private static final Map<String, CompletableFuture<Response>> inFlightRequests = new ConcurrentHashMap<>();
+    private static final LongAdder issuedRequests = new LongAdder();
+    private static final LongAdder coalescedRequests = new LongAdder();
+    //所有调用方共享的重试预算, 重试次数不超过原始请求的20%, 每秒保底1次, 最多积攒20次
+    private static final RetryBudget retryBudget = new RetryBudget(0.2, 1, 20);
+    //对冲请求的额外流量上限, 对冲请求数不超过原始请求的10%, 与重试预算同样按令牌桶计算
+    private static final RetryBudget hedgeBudget = new RetryBudget(0.1, 0, 10);
+
     private static final ExecutorService resultHandlerExecutor = new ThreadPoolExecutor(0,//核心线程数 设置为0 保证线程池中没有线程时销毁线程池 保证内存占用最小
             64,
             60L,
@@ -78,12 +114,21 @@ public class AsyncHttpClientUtil {
     }
 
     /**
-     * 通过自定义配置构建一个异步httpclient
+     * 获取全局共享的异步httpclient, 所有出站请求共用同一个连接池
      *
      * @return async-http-client
      */
     public static AsyncHttpClient getAsyncClient() {
-        return asyncHttpClient(buildClientConfig());
+        return client;
+    }
+
+    /**
+     * 获取共享连接池的统计信息, 如总连接数、活跃连接数、空闲连接数
+     *
+     * @return 连接池统计信息
+     */
+    public static ClientStats getClientStats() {
+        return client.getClientStats();
     }
 
     public static ByteArrayInputStream downloadImage(final String imgUrl) {
@@ -103,7 +148,7 @@ public class AsyncHttpClientUtil {
     }
 
     /**
-     * 下载图片, 可选是否随机修改图片像素点
+     * 下载图片, 可选是否随机修改图片像素点, 阻塞直到下载完成
      *
      * @param imgUrl 图片地址
      * @param change 是否随机修改图片像素点
@@ -111,64 +156,300 @@ public class AsyncHttpClientUtil {
      */
     @SneakyThrows
     public static ByteArrayInputStream downloadImage(final String imgUrl, final boolean change, final boolean compress, final float scale, final Map<String, String> headers) {
+        return downloadImageAsync(imgUrl, change, compress, scale, headers).get(30, TimeUnit.SECONDS);
+    }
+
+    public static CompletableFuture<ByteArrayInputStream> downloadImageAsync(final String imgUrl) {
+        return downloadImageAsync(imgUrl, true);
+    }
+
+    public static CompletableFuture<ByteArrayInputStream> downloadImageAsync(final String imgUrl, final Map<String, String> headers) {
+        return downloadImageAsync(imgUrl, true, false, 0, headers);
+    }
+
+    public static CompletableFuture<ByteArrayInputStream> downloadImageAsync(final String imgUrl, final boolean change) {
+        return downloadImageAsync(imgUrl, change, false, 0);
+    }
+
+    public static CompletableFuture<ByteArrayInputStream> downloadImageAsync(final String imgUrl, final boolean change, final boolean compress, final float scale) {
+        return downloadImageAsync(imgUrl, change, compress, scale, null);
+    }
+
+    /**
+     * 异步下载图片, 可选是否随机修改图片像素点, 不阻塞调用线程.
+     * 不修改也不压缩时直接返回原始字节; 需要处理时按响应的Content-Type选择输出格式.
+     * 不使用磁盘缓存, 内容不变的图片使用 {@link #downloadCachedImageAsync}
+     *
+     * @param imgUrl   图片地址
+     * @param change   是否修改图片防止被去重, 优先插入随机注释块, 不支持的格式随机修改像素点
+     * @param compress 是否压缩图片(仅对大于500KB的图片生效)
+     * @param scale    压缩比例
+     * @param headers  请求头
+     * @return 图片流的future, 下载或处理失败时结果为null
+     */
+    public static CompletableFuture<ByteArrayInputStream> downloadImageAsync(final String imgUrl, final boolean change, final boolean compress, final float scale, final Map<String, String> headers) {
+        return downloadImageAsync(imgUrl, change, compress, scale, 0, headers, false);
+    }
+
+    public static CompletableFuture<ByteArrayInputStream> downloadCachedImageAsync(final String imgUrl) {
+        return downloadCachedImageAsync(imgUrl, true);
+    }
+
+    public static CompletableFuture<ByteArrayInputStream> downloadCachedImageAsync(final String imgUrl, final boolean change) {
+        return downloadCachedImageAsync(imgUrl, change, false, 0);
+    }
+
+    /**
+     * 异步下载地址不变则内容不变的图片(如封面、预览图、商店图), 处理后的字节写入磁盘缓存, 相同地址和参数的后续请求直接读取缓存.
+     * 固定地址但内容会变化的图片(如每日更新的图片)不能使用
+     *
+     * @param imgUrl   图片地址
+     * @param change   是否修改图片防止被去重, 命中缓存时同样会修改
+     * @param compress 是否压缩图片(仅对大于500KB的图片生效)
+     * @param scale    压缩比例
+     * @return 图片流的future, 下载或处理失败时结果为null
+     */
+    public static CompletableFuture<ByteArrayInputStream> downloadCachedImageAsync(final String imgUrl, final boolean change, final boolean compress, final float scale) {
+        return downloadImageAsync(imgUrl, change, compress, scale, 0, null, true);
+    }
+
+    /**
+     * 异步下载图片, 超过目标大小时等比缩小到目标大小以内
+     *
+     * @param imgUrl   图片地址
+     * @param change   是否修改图片防止被去重
+     * @param maxBytes 目标字节数
+     * @param headers  请求头
+     * @return 图片流的future, 下载或处理失败时结果为null
+     */
+    public static CompletableFuture<ByteArrayInputStream> downloadImageWithinSizeAsync(final String imgUrl, final boolean change, final long maxBytes, final Map<String, String> headers) {
+        return downloadImageAsync(imgUrl, change, false, 1, maxBytes, headers, false);
+    }
+
+    private static CompletableFuture<ByteArrayInputStream> downloadImageAsync(final String imgUrl, final boolean change, final boolean compress, final float scale,
+                                                                              final long maxBytes, final Map<String, String> headers, final boolean diskCache) {
         if (StrUtil.isBlank(imgUrl)) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
+        if (!diskCache) {
+            return fetchImage(imgUrl, change, compress, scale, maxBytes, headers, null);
+        }
+        //磁盘缓存存放压缩后、防去重修改前的字节, 命中时只需做防去重修改, 不走网络也不解码; 读文件在io线程池中进行
+        final String cacheKey = imgUrl + "|compress=" + (compress ? scale : "none") + "|maxBytes=" + maxBytes
+                + (headers == null || headers.isEmpty() ? "" : "|headers=" + new TreeMap<>(headers));
+        return ImageDiskCache.getAsync(cacheKey).thenCompose(cached -> {
+            if (cached == null) {
+                return fetchImage(imgUrl, change, compress, scale, maxBytes, headers, cacheKey);
+            }
+            if (!change) {
+                return CompletableFuture.completedFuture(new ByteArrayInputStream(cached));
+            }
+            return CompletableFuture.supplyAsync(() -> mutateImage(imgUrl, cached), CPUThreadPool.executor())
+                    .exceptionally(throwable -> {
+                        log.error("处理缓存图片 imgUrl:{} 失败", imgUrl, throwable);
+                        return null;
+                    });
+        });
+    }
+
+    /**
+     * 从网络下载并处理图片
+     *
+     * @param cacheKey 磁盘缓存的key, 为null时不写入磁盘缓存
+     */
+    private static CompletableFuture<ByteArrayInputStream> fetchImage(final String imgUrl, final boolean change, final boolean compress, final float scale,
+                                                                      final long maxBytes, final Map<String, String> headers, final String cacheKey) {
         final BoundRequestBuilder requestBuilder = client.prepareGet(imgUrl);
         if (headers != null) {
             headers.forEach(requestBuilder::addHeader);
         }
-        final CompletableFuture<ByteArrayInputStream> png =
-                requestBuilder.execute()
-                        .toCompletableFuture()
-                        .thenApplyAsync(resp -> {
-                            final byte[] imageBytes = resp.getResponseBodyAsBytes();
-                            // 以KB为单位计算大小
-                            final int sizeInKB = imageBytes.length / 1024;
-                            final InputStream in = new ByteArrayInputStream(imageBytes);
-
-                            BufferedImage image;
-                            try {
-                                image = ImageIO.read(in);
-                            } catch (final IOException e) {
-                                log.error("读取 imgUrl:{} 失败", imgUrl, e);
-                                throw new RuntimeException(e);
-                            }
-                            // 获取图像的宽度和高度
-                            final int width = image.getWidth();
-                            final int height = image.getHeight();
-
-                            if (change) {
-                                // 随机生成一个像素点的位置
-                                final ThreadLocalRandom random = ThreadLocalRandom.current();
-                                final int x = random.nextInt(width);
-                                final int y = random.nextInt(height);
-                                image.setRGB(x, y, Color.RED.getRGB());
-                            }
-
-                            if (compress && sizeInKB >= 500) {
-                                final int newWidth = (int) (width * scale);
-                                final int newHeight = (int) (height * scale);
-                                // 使用 java.awt.Image 对象的 getScaledInstance() 方法进行图片缩放
-                                final Image scaledImage = image.getScaledInstance(newWidth, newHeight, Image.SCALE_SMOOTH);
-                                final BufferedImage bufferedScaledImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_ARGB);
-                                bufferedScaledImage.getGraphics().drawImage(scaledImage, 0, 0, null);
-                                image = bufferedScaledImage;
-                            }
-
-                            // 写回 ByteArrayOutputStream
-                            try (ByteArrayOutputStream modifiedOut = new ByteArrayOutputStream(width * height * 4)) {
-                                ImageIO.write(image, "png", modifiedOut);
-                                return new ByteArrayInputStream(modifiedOut.toByteArray());
-                            } catch (final IOException e) {
-                                log.error("写入 imgUrl:{} 失败", imgUrl, e);
-                                throw new RuntimeException(e);
-                            }
-                        }).exceptionally(throwable -> {
-                            log.error("下载 imgUrl:{} 失败", imgUrl, throwable);
-                            return null;
-                        });
-        return png.get(30, TimeUnit.SECONDS);
+        return executeCoalesced(requestBuilder.build())
+                .toCompletableFuture()
+                //图片解码/编码/缩放在专用的cpu线程池中执行, 不占用netty的io线程和ForkJoin公共池
+                .thenApplyAsync(resp -> {
+                    if (resp.getStatusCode() >= 400) {
+                        throw new CompletionException(new IOException("下载图片失败, 状态码: " + resp.getStatusCode()));
+                    }
+                    final byte[] processed = processImage(imgUrl, resp.getResponseBodyAsBytes(), resp.getContentType(), compress, scale, maxBytes);
+                    if (cacheKey != null) {
+                        ImageDiskCache.putAsync(cacheKey, processed);
+                    }
+                    return change ? mutateImage(imgUrl, processed) : new ByteArrayInputStream(processed);
+                }, CPUThreadPool.executor()).exceptionally(throwable -> {
+                    log.error("下载 imgUrl:{} 失败", imgUrl, throwable);
+                    return null;
+                });
+    }
+
+    /**
+     * 按需压缩图片, 不需要压缩时直接返回原始字节, 跳过解码和重新编码
+     *
+     * @param imgUrl      图片地址, 用于日志
+     * @param imageBytes  原始图片字节
+     * @param contentType 响应的Content-Type, 用于选择编码格式
+     * @param compress    是否压缩图片(仅对大于500KB的图片生效)
+     * @param scale       压缩比例
+     * @param maxBytes    目标字节数, 小于等于0表示不限制
+     * @return 处理后的图片字节
+     */
+    private static byte[] processImage(final String imgUrl, final byte[] imageBytes, final String contentType, final boolean compress, final float scale, final long maxBytes) {
+        // 以KB为单位计算大小
+        final int sizeInKB = imageBytes.length / 1024;
+        final boolean fitSize = maxBytes > 0 && imageBytes.length > maxBytes;
+        if (!(compress && sizeInKB >= 500) && !fitSize) {
+            return imageBytes;
+        }
+        final BufferedImage image = readImage(imgUrl, imageBytes);
+        //按响应的Content-Type选择编码格式, 避免JPEG被重新编码为体积大得多的PNG
+        final String imageType = getImageType(contentType);
+        try {
+            if (fitSize) {
+                return ImageScaler.scaleToByteSize(image, imageType, maxBytes);
+            }
+            return ImageScaler.encode(ImageScaler.scale(image, scale), imageType);
+        } catch (final IOException e) {
+            log.error("写入 imgUrl:{} 失败", imgUrl, e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 修改图片防止被qq去重, 优先插入随机注释块, 不支持的格式退回随机修改一个像素点
+     *
+     * @param imgUrl     图片地址, 用于日志
+     * @param imageBytes 图片字节
+     * @return 修改后的图片流
+     */
+    private static ByteArrayInputStream mutateImage(final String imgUrl, final byte[] imageBytes) {
+        final byte[] mutated = ImageByteMutator.mutate(imageBytes);
+        if (mutated != null) {
+            return new ByteArrayInputStream(mutated);
+        }
+        final BufferedImage image = readImage(imgUrl, imageBytes);
+        // 随机生成一个像素点的位置
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int x = random.nextInt(image.getWidth());
+        final int y = random.nextInt(image.getHeight());
+        image.setRGB(x, y, Color.RED.getRGB());
+        try {
+            return new ByteArrayInputStream(ImageScaler.encode(image, "png"));
+        } catch (final IOException e) {
+            log.error("写入 imgUrl:{} 失败", imgUrl, e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static BufferedImage readImage(final String imgUrl, final byte[] imageBytes) {
+        final BufferedImage image;
+        try {
+            image = ImageIO.read(new ByteArrayInputStream(imageBytes));
+        } catch (final IOException e) {
+            log.error("读取 imgUrl:{} 失败", imgUrl, e);
+            throw new RuntimeException(e);
+        }
+        if (image == null) {
+            throw new CompletionException(new IOException("无法识别的图片格式: " + imgUrl));
+        }
+        return image;
+    }
+
+    /**
+     * 并发获取所有数据: 对每个元素调用fetcher发起异步请求, 在整体截止时间内等待,
+     * 结果按输入顺序返回, 失败或超时的结果被丢弃(部分结果), 不阻塞任何线程
+     *
+     * @param items    输入元素, 如图片地址
+     * @param fetcher  异步获取函数, 如 AsyncHttpClientUtil::downloadImageAsync
+     * @param deadline 整体截止时间
+     * @param <T>      输入类型
+     * @param <R>      结果类型
+     * @return 按输入顺序排列的成功结果列表的future
+     */
+    public static <T, R> CompletableFuture<List<R>> fetchAll(final Collection<T> items, final Function<? super T, CompletableFuture<R>> fetcher, final Duration deadline) {
+        return fetchAll(items, fetcher, deadline, deadline);
+    }
+
+    /**
+     * 并发获取所有数据, 每个元素有单独的截止时间, 所有元素共享一个整体截止时间,
+     * 单个元素超时只丢弃该元素, 不影响其他元素
+     *
+     * @param items        输入元素, 如图片地址
+     * @param fetcher      异步获取函数, 如 AsyncHttpClientUtil::downloadImageAsync
+     * @param itemDeadline 单个元素的截止时间, 从发起该元素的请求开始计算
+     * @param deadline     整体截止时间
+     * @param <T>          输入类型
+     * @param <R>          结果类型
+     * @return 按输入顺序排列的成功结果列表的future
+     */
+    public static <T, R> CompletableFuture<List<R>> fetchAll(final Collection<T> items, final Function<? super T, CompletableFuture<R>> fetcher,
+                                                             final Duration itemDeadline, final Duration deadline) {
+        if (items == null || items.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        final List<CompletableFuture<R>> futures = items.stream()
+                .map(item -> {
+                    try {
+                        return withDeadline(fetcher.apply(item), itemDeadline.toMillis(), TimeUnit.MILLISECONDS);
+                    } catch (final Exception e) {
+                        return CompletableFuture.<R>failedFuture(e);
+                    }
+                })
+                .toList();
+        return allOfWithDeadline(futures, deadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 等待所有future完成或到达整体截止时间, 截止时未完成或失败的结果会被丢弃, 其余结果保持原有顺序
+     *
+     * @param futures 待等待的future列表
+     * @param timeout 整体截止时间
+     * @param unit    超时时间单位
+     * @param <T>     结果类型
+     * @return 所有成功结果组成的列表的future
+     */
+    public static <T> CompletableFuture<List<T>> allOfWithDeadline(final List<CompletableFuture<T>> futures, final long timeout, final TimeUnit unit) {
+        return allOfWithDeadline(futures, timeout, timeout, unit);
+    }
+
+    /**
+     * 等待所有future完成, 每个future超过单独的截止时间后按null处理并被丢弃, 整体截止时间到达时同样只取已成功的结果.
+     * 超时只作用在派生的future上, 不会取消原future, 原future可能被其他调用方共享
+     *
+     * @param futures     待等待的future列表
+     * @param itemTimeout 单个future的截止时间, 从调用本方法时开始计算
+     * @param timeout     整体截止时间
+     * @param unit        超时时间单位
+     * @param <T>         结果类型
+     * @return 所有成功结果组成的列表的future
+     */
+    public static <T> CompletableFuture<List<T>> allOfWithDeadline(final List<CompletableFuture<T>> futures, final long itemTimeout,
+                                                                  final long timeout, final TimeUnit unit) {
+        if (futures == null || futures.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        //在派生的future上等待, 失败或超过单个截止时间的future视为null
+        final List<CompletableFuture<T>> items = futures.stream()
+                .map(future -> withDeadline(future, itemTimeout, unit).exceptionally(throwable -> null))
+                .toList();
+        return CompletableFuture.allOf(items.toArray(CompletableFuture[]::new))
+                .completeOnTimeout(null, timeout, unit)
+                .thenApply(v -> {
+                    //到达整体截止时间时只取已成功完成的结果
+                    final List<T> results = items.stream()
+                            .map(item -> item.getNow(null))
+                            .filter(Objects::nonNull)
+                            .toList();
+                    if (results.size() < futures.size()) {
+                        log.info("{} 个请求中 {} 个失败或未在截止时间内完成", futures.size(), futures.size() - results.size());
+                    }
+                    return results;
+                });
+    }
+
+    /**
+     * 为future派生一个带截止时间的副本, 超时后副本以TimeoutException失败, 原future不受影响
+     */
+    private static <T> CompletableFuture<T> withDeadline(final CompletableFuture<T> future, final long timeout, final TimeUnit unit) {
+        return future.copy().orTimeout(timeout, unit);
     }
 
     /**
@@ -183,8 +464,8 @@ public class AsyncHttpClientUtil {
             return "png"; // 返回默认类型
         }
 
-        // 将contentType转为小写，以便能与标准MIME类型匹配
-        final String lowerContentType = contentType.toLowerCase();
+        // 去掉charset等参数并转为小写，以便能与标准MIME类型匹配
+        final String lowerContentType = StrUtil.subBefore(contentType, ';', false).trim().toLowerCase();
         return switch (lowerContentType) {
             case "image/jpeg", "image/jpg" -> "jpg";
             case "image/png" -> "png";
@@ -266,7 +547,373 @@ public class AsyncHttpClientUtil {
         if (preRequest != null) {
             preRequest.accept(builder);
         }
-        return Pair.of(builder.build(), builder.execute());
+        final Request request = builder.build();
+        return Pair.of(request, executeCoalesced(request));
+    }
+
+    /**
+     * 合并执行相同的GET请求: 若已有method+url+请求头完全相同的请求正在进行中, 共享其结果, 不再发起新请求.
+     * 每个调用方拿到的是共享future的独立副本, 调用方取消或超时只影响自己的副本, 不会影响其他等待同一请求的调用方
+     *
+     * @param request 请求
+     * @return 响应数据引用
+     */
+    private static ListenableFuture<Response> executeCoalesced(final Request request) {
+        final String key = coalesceKey(request);
+        final CompletableFuture<Response> placeholder = new CompletableFuture<>();
+        final CompletableFuture<Response> existing = inFlightRequests.putIfAbsent(key, placeholder);
+        if (existing != null) {
+            coalescedRequests.increment();
+            log.debug("合并相同的进行中请求: {}", request.getUrl());
+            return new CompletableListenableFuture<>(existing.copy());
+        }
+        issuedRequests.increment();
+        //请求完成后移出, 后续相同请求重新发起
+        placeholder.whenComplete((resp, throwable) -> inFlightRequests.remove(key, placeholder));
+        //在map之外发起请求: execute可能同步执行其他排队的请求, 它们完成时会修改inFlightRequests
+        try {
+            execute(request).toCompletableFuture().whenComplete((resp, throwable) -> {
+                if (throwable != null) {
+                    placeholder.completeExceptionally(throwable);
+                } else {
+                    placeholder.complete(resp);
+                }
+            });
+        } catch (final RuntimeException e) {
+            placeholder.completeExceptionally(e);
+        }
+        return new CompletableListenableFuture<>(placeholder.copy());
+    }
+
+    /**
+     * 执行请求, 若请求的host已熔断则直接失败; 若配置了限流策略, 则排队等待许可后再发出, 排队期间不阻塞调用线程
+     *
+     * @param request 请求
+     * @return 响应数据引用
+     */
+    private static ListenableFuture<Response> execute(final Request request) {
+        final String host = request.getUri().getHost();
+        final CircuitBreaker breaker = CircuitBreakerRegistry.get(host);
+        if (breaker != null && !breaker.tryAcquire()) {
+            return new CompletableListenableFuture<>(CompletableFuture.failedFuture(new CircuitOpenException(host)));
+        }
+        final HostThrottle throttle = HostThrottleRegistry.get(host);
+        if (throttle == null) {
+            return send(request, breaker);
+        }
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+        throttle.submit(() -> {
+            //排队期间已被取消或中止, 直接归还许可
+            if (result.isDone()) {
+                throttle.release();
+                if (breaker != null) {
+                    breaker.onIgnored();
+                }
+                return;
+            }
+            try {
+                final ListenableFuture<Response> sent = send(request, breaker);
+                sent.toCompletableFuture().whenComplete((resp, throwable) -> {
+                    throttle.release();
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable);
+                    } else {
+                        result.complete(resp);
+                    }
+                });
+                //调用方取消时中止已发出的请求
+                result.whenComplete((resp, throwable) -> {
+                    if (result.isCancelled()) {
+                        sent.cancel(true);
+                    }
+                });
+            } catch (final Exception e) {
+                throttle.release();
+                result.completeExceptionally(e);
+            }
+        });
+        return new CompletableListenableFuture<>(result);
+    }
+
+    /**
+     * 发出请求, 记录host的耗时, 并将结果(异常或5xx视为失败)和耗时记录到熔断器
+     *
+     * @param request 请求
+     * @param breaker 熔断器, 可为null
+     * @return 响应数据引用
+     */
+    private static ListenableFuture<Response> send(final Request request, final CircuitBreaker breaker) {
+        final long start = System.nanoTime();
+        final ListenableFuture<Response> future;
+        try {
+            future = client.executeRequest(request);
+        } catch (final RuntimeException e) {
+            if (breaker != null) {
+                breaker.onResult(true, System.nanoTime() - start);
+            }
+            throw e;
+        }
+        final LatencyTracker tracker = LatencyTracker.forHost(request.getUri().getHost());
+        future.toCompletableFuture().whenComplete((resp, throwable) -> {
+            final long duration = System.nanoTime() - start;
+            if (throwable == null) {
+                tracker.record(TimeUnit.NANOSECONDS.toMillis(duration));
+            }
+            if (breaker == null) {
+                return;
+            }
+            if (throwable instanceof CancellationException || throwable != null && throwable.getCause() instanceof CancellationException) {
+                breaker.onIgnored();
+            } else {
+                breaker.onResult(throwable != null || resp.getStatusCode() >= 500, duration);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 生成请求合并的key, 包含全部请求头和cookie, 避免携带不同凭证(如api key、自定义token头)的请求共享响应
+     *
+     * @param request 请求
+     * @return method+url+重定向策略+认证信息+请求头+cookie
+     */
+    private static String coalesceKey(final Request request) {
+        final StringBuilder key = new StringBuilder(request.getMethod()).append(' ').append(request.getUrl());
+        //是否跟随重定向会影响最终响应
+        if (Boolean.TRUE.equals(request.getFollowRedirect())) {
+            key.append(" [redirect]");
+        }
+        if (request.getRealm() != null) {
+            key.append("\nrealm:").append(request.getRealm().getScheme()).append(':').append(request.getRealm().getPrincipal());
+        }
+        //请求头名不区分大小写, 排序后拼接, 同样的请求头以不同顺序添加时得到相同的key
+        final TreeMap<String, List<String>> headers = new TreeMap<>();
+        for (final Map.Entry<String, String> header : request.getHeaders()) {
+            headers.computeIfAbsent(header.getKey().toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(header.getValue());
+        }
+        headers.forEach((name, values) -> key.append('\n').append(name).append(':').append(String.join(",", values)));
+        request.getCookies().forEach(cookie -> key.append("\ncookie:").append(cookie.name()).append('=').append(cookie.value()));
+        return key.toString();
+    }
+
+    /**
+     * @return 实际发出的(参与合并的)GET请求数
+     */
+    public static long getIssuedRequestCount() {
+        return issuedRequests.sum();
+    }
+
+    /**
+     * @return 被合并到其他进行中请求上的GET请求数
+     */
+    public static long getCoalescedRequestCount() {
+        return coalescedRequests.sum();
+    }
+
+    /**
+     * GET异步请求, 按重试策略对异常及可重试状态码(如429/5xx)进行退避重试, 重试受全局预算限制
+     *
+     * @param url        请求地址
+     * @param preRequest 预请求信息，如：参数、头、请求体等
+     * @param policy     重试策略
+     * @return 最后一次请求的响应, 重试耗尽时返回最后一次的响应或异常
+     */
+    public static CompletableFuture<Response> doGetWithRetry(final String url, final Consumer<BoundRequestBuilder> preRequest, final RetryPolicy policy) {
+        final BoundRequestBuilder builder = client.prepareGet(url);
+        if (preRequest != null) {
+            preRequest.accept(builder);
+        }
+        return executeWithRetry(builder.build(), policy, AsyncHttpClientUtil::executeCoalesced);
+    }
+
+    /**
+     * POST异步请求, 按重试策略对异常及可重试状态码(如429/5xx)进行退避重试, 重试受全局预算限制.
+     * POST通常不是幂等的, 一般应使用 {@link RetryPolicy#NON_IDEMPOTENT} 或在其基础上调整
+     *
+     * @param url        请求地址
+     * @param preRequest 预请求信息，如：参数、头、请求体等
+     * @param policy     重试策略
+     * @return 最后一次请求的响应, 重试耗尽时返回最后一次的响应或异常
+     */
+    public static CompletableFuture<Response> doPostWithRetry(final String url, final Consumer<BoundRequestBuilder> preRequest, final RetryPolicy policy) {
+        final BoundRequestBuilder builder = client.preparePost(url);
+        if (preRequest != null) {
+            preRequest.accept(builder);
+        }
+        return executeWithRetry(builder.build(), policy, AsyncHttpClientUtil::execute);
+    }
+
+    private static CompletableFuture<Response> executeWithRetry(final Request request, final RetryPolicy policy, final Function<Request, ListenableFuture<Response>> sender) {
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+        retryBudget.recordRequest();
+        attempt(request, policy, sender, 1, System.nanoTime(), result);
+        return result;
+    }
+
+    private static void attempt(final Request request, final RetryPolicy policy, final Function<Request, ListenableFuture<Response>> sender,
+                                final int attempt, final long startNanos, final CompletableFuture<Response> result) {
+        if (result.isDone()) {
+            return;
+        }
+        final CompletableFuture<Response> future;
+        try {
+            future = sender.apply(request).toCompletableFuture();
+        } catch (final Exception e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        future.whenComplete((response, throwable) -> {
+            final Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            //被取消或已熔断的请求不再重试, 其余异常由策略决定(非幂等请求只重试连接阶段的失败)
+            final boolean retryable = cause != null
+                    ? !(cause instanceof CancellationException || cause instanceof CircuitOpenException) && policy.isRetryableException(cause)
+                    : policy.isRetryableStatus(response.getStatusCode());
+            if (retryable && !result.isDone()) {
+                final long delay = policy.backoffMillis(attempt, response != null ? response.getHeader("Retry-After") : null);
+                final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                if (attempt < policy.getMaxAttempts() && elapsed + delay <= policy.getMaxElapsed().toMillis() && retryBudget.tryAcquireRetry()) {
+                    log.info("请求 {} 第{}次失败({}), {}ms后重试", request.getUrl(), attempt,
+                            cause != null ? cause.getClass().getSimpleName() : response.getStatusCode(), delay);
+                    CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, resultHandlerExecutor)
+                            .execute(() -> attempt(request, policy, sender, attempt + 1, startNanos, result));
+                    return;
+                }
+            }
+            if (cause != null) {
+                result.completeExceptionally(cause);
+            } else {
+                result.complete(response);
+            }
+        });
+    }
+
+    /**
+     * GET对冲请求: 首个请求在host最近的分位耗时(如p95)内未响应时, 再发出一个相同的请求, 取先成功者并取消另一个.
+     * 对冲请求受全局额外流量预算限制, 且不参与请求合并, 仅用于幂等且对延迟敏感的请求
+     *
+     * @param url        请求地址
+     * @param preRequest 预请求信息，如：参数、头、请求体等
+     * @param policy     对冲策略
+     * @return 先成功的响应, 全部失败时返回最后一个异常
+     */
+    public static CompletableFuture<Response> doGetHedged(final String url, final Consumer<BoundRequestBuilder> preRequest, final HedgePolicy policy) {
+        final BoundRequestBuilder builder = client.prepareGet(url);
+        if (preRequest != null) {
+            preRequest.accept(builder);
+        }
+        final Request request = builder.build();
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+        //未完成的请求数, 全部失败时才以异常结束
+        final AtomicInteger pending = new AtomicInteger(1);
+        hedgeBudget.recordRequest();
+        final ListenableFuture<Response> primary = execute(request);
+        completeHedged(primary, result, pending);
+
+        final long delay = policy.hedgeDelayMillis(LatencyTracker.forHost(request.getUri().getHost()));
+        CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, resultHandlerExecutor).execute(() -> {
+            if (result.isDone() || !hedgeBudget.tryAcquireRetry()) {
+                return;
+            }
+            //首个请求可能恰好在此时失败, 已无进行中的请求则不再对冲
+            if (pending.getAndIncrement() == 0) {
+                return;
+            }
+            log.debug("请求 {} 超过{}ms未响应, 发出对冲请求", request.getUrl(), delay);
+            final ListenableFuture<Response> hedge = execute(request);
+            completeHedged(hedge, result, pending);
+            //先完成的一方胜出, 取消另一方
+            result.whenComplete((resp, throwable) -> {
+                primary.cancel(true);
+                hedge.cancel(true);
+            });
+        });
+        return result;
+    }
+
+    private static void completeHedged(final ListenableFuture<Response> future, final CompletableFuture<Response> result, final AtomicInteger pending) {
+        future.toCompletableFuture().whenComplete((resp, throwable) -> {
+            if (throwable == null) {
+                result.complete(resp);
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(throwable);
+            }
+        });
+    }
+
+    /**
+     * @return 全局重试预算
+     */
+    public static RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * GET阻塞请求并使用Jsoup解析为Document, 替代Jsoup.connect, 使请求走共享连接池
+     *
+     * @param url 请求地址
+     * @return 解析后的Document
+     */
+    public static Document getDocument(final String url) {
+        return getDocument(url, null);
+    }
+
+    /**
+     * GET阻塞请求并使用Jsoup解析为Document, 替代Jsoup.connect, 使请求走共享连接池
+     *
+     * @param url        请求地址
+     * @param preRequest 预请求信息，如：参数、头、请求体等
+     * @return 解析后的Document
+     */
+    @SneakyThrows
+    public static Document getDocument(final String url, final Consumer<BoundRequestBuilder> preRequest) {
+        return getDocumentAsync(url, preRequest).get();
+    }
+
+    /**
+     * GET异步请求并使用Jsoup解析为Document, 与Jsoup.connect一样会跟随重定向, 非2xx/3xx响应视为失败
+     *
+     * @param url        请求地址
+     * @param preRequest 预请求信息，如：参数、头、请求体等
+     * @return 解析后的Document的future
+     */
+    public static CompletableFuture<Document> getDocumentAsync(final String url, final Consumer<BoundRequestBuilder> preRequest) {
+        return getHtmlAsync(url, preRequest).thenApply(html -> Jsoup.parse(html, url));
+    }
+
+    /**
+     * GET阻塞请求并返回页面源码, 请求方式与getDocument相同, 用于只需要页面中一小部分、不必解析整个页面的场景
+     *
+     * @param url 请求地址
+     * @return 页面源码
+     */
+    @SneakyThrows
+    public static String getHtml(final String url) {
+        return getHtmlAsync(url, null).get();
+    }
+
+    /**
+     * GET异步请求并返回页面源码, 会跟随重定向, 非2xx/3xx响应视为失败, 以HttpStatusException结束
+     *
+     * @param url        请求地址
+     * @param preRequest 预请求信息，如：参数、头、请求体等
+     * @return 页面源码的future
+     */
+    public static CompletableFuture<String> getHtmlAsync(final String url, final Consumer<BoundRequestBuilder> preRequest) {
+        final Pair<Request, ListenableFuture<Response>> result = doGetInFuture(url, builder -> {
+            builder.setFollowRedirect(true)
+                    .setHeader("User-Agent", DEFAULT_USER_AGENT);
+            if (preRequest != null) {
+                preRequest.accept(builder);
+            }
+        });
+        return result.getValue()
+                .toCompletableFuture()
+                .thenApply(resp -> {
+                    if (resp.getStatusCode() >= 400) {
+                        throw new CompletionException(new HttpStatusException(resp.getStatusCode(), url));
+                    }
+                    return resp.getResponseBody();
+                });
     }
 
     public static Pair<Request, ListenableFuture<NettyWebSocket>> doWebSocket(final String url, final Consumer<BoundRequestBuilder> preRequest) {
@@ -321,7 +968,8 @@ public class AsyncHttpClientUtil {
         if (preRequest != null) {
             preRequest.accept(builder);
         }
-        return Pair.of(builder.build(), builder.execute());
+        final Request request = builder.build();
+        return Pair.of(request, execute(request));
     }
 
     /**
@@ -352,7 +1000,8 @@ public class AsyncHttpClientUtil {
         if (preRequest != null) {
             preRequest.accept(builder);
         }
-        return Pair.of(builder.build(), builder.execute());
+        final Request request = builder.build();
+        return Pair.of(request, execute(request));
     }
 
     @SneakyThrows
@@ -387,6 +1036,7 @@ public class AsyncHttpClientUtil {
                 eventLoopGroup.shutdownGracefully();
                 log.warn("关闭asyncHttpClient服务eventLoopGroup");
             }
+            HostThrottleRegistry.shutdown();
             if (!resultHandlerExecutor.isShutdown()) {
                 resultHandlerExecutor.shutdown();
                 log.warn("关闭asyncHttpClient服务threadPool");
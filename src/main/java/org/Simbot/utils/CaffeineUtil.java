@@ -1,26 +1,67 @@
 package org.Simbot.utils;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.Cache;
-import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
 import org.Simbot.config.caffeine.CacheDataWrapper;
+import org.Simbot.config.caffeine.CacheRegion;
+import org.Simbot.config.caffeine.CaffeineCacheConfig;
+import org.Simbot.utils.cache.RegionCache;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
  * @author ycvk
- * @description 本地caffeine缓存工具类
+ * @description 本地caffeine缓存工具类, 按 CacheRegion 分区域缓存, 不指定区域的方法使用默认区域
  * @date 2023/08/01 22:13
  */
+@Slf4j
 @Component
 public class CaffeineUtil {
 
-    @Resource
-    private Cache<String, CacheDataWrapper> caffeineCache;
+    private final Map<String, RegionCache<?>> regions = new ConcurrentHashMap<>();
+
+    private final Cache<String, CacheDataWrapper> caffeineCache;
+
+    public CaffeineUtil(final List<CacheRegion> cacheRegions) {
+        Cache<String, CacheDataWrapper> defaultCache = null;
+        for (final CacheRegion region : cacheRegions) {
+            final Cache<String, CacheDataWrapper> cache = CaffeineCacheConfig.buildCache(region);
+            if (regions.putIfAbsent(region.getName(), new RegionCache<>(region, cache)) != null) {
+                throw new IllegalStateException("缓存区域重复声明: " + region.getName());
+            }
+            if (CaffeineCacheConfig.DEFAULT_REGION.equals(region.getName())) {
+                defaultCache = cache;
+            }
+            log.info("创建本地缓存区域: {}", region);
+        }
+        if (defaultCache == null) {
+            throw new IllegalStateException("缺少默认缓存区域: " + CaffeineCacheConfig.DEFAULT_REGION);
+        }
+        this.caffeineCache = defaultCache;
+    }
+
+    /**
+     * 获取缓存区域
+     *
+     * @param name 区域名, 需在 CaffeineCacheConfig 中声明
+     * @param <V>  缓存值类型
+     * @return 缓存区域
+     */
+    @SuppressWarnings("unchecked")
+    public <V> RegionCache<V> region(final String name) {
+        final RegionCache<?> region = regions.get(name);
+        if (region == null) {
+            throw new IllegalArgumentException("未声明的缓存区域: " + name);
+        }
+        return (RegionCache<V>) region;
+    }
 
     // 添加缓存
     public <T> void put(final String key, final T value) {
@@ -42,12 +83,19 @@ public class CaffeineUtil {
         return Optional.empty();
     }
 
+    /**
+     * 获取泛型类型的缓存, typeReference只用于确定返回类型, 直接返回缓存的对象, 不做转换和拷贝
+     *
+     * @param key           缓存key
+     * @param typeReference 缓存value类型
+     * @param <T>           缓存value类型
+     * @return 缓存value
+     */
+    @SuppressWarnings("unchecked")
     public <T> Optional<T> get(final String key, final TypeReference<T> typeReference) {
         final CacheDataWrapper cacheDataWrapper = caffeineCache.getIfPresent(key);
         if (cacheDataWrapper != null) {
-            final ObjectMapper objectMapper = new ObjectMapper();
-            final T data = objectMapper.convertValue(cacheDataWrapper.getData(), typeReference);
-            return Optional.ofNullable(data);
+            return Optional.ofNullable((T) cacheDataWrapper.getData());
         }
         return Optional.empty();
     }
@@ -9,31 +9,14 @@ package org.Simbot.utils;
 
 import lombok.extern.slf4j.Slf4j;
 import org.Simbot.utils.Properties.properties;
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
-import org.apache.http.NameValuePair;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.config.RequestConfig;
-import org.apache.http.client.entity.UrlEncodedFormEntity;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.entity.mime.content.StringBody;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.message.BasicNameValuePair;
-import org.apache.http.util.EntityUtils;
-import org.asynchttpclient.AsyncHttpClient;
-import org.asynchttpclient.DefaultAsyncHttpClient;
 import org.asynchttpclient.Response;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Duration;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
@@ -41,7 +24,7 @@ import java.util.function.Consumer;
  * <p>
  * Author: zhukang
  * <p>
- * Description: http请求工具类
+ * Description: http请求工具类, 底层统一使用 {@link AsyncHttpClientUtil} 的共享连接池
  */
 @Slf4j
 public final class HttpClient4Util {
@@ -120,41 +103,16 @@ public final class HttpClient4Util {
         log.debug("执行Http Post请求,地址: {} ,参数: {}", url, params);
 
         String response = null;
-        CloseableHttpClient httpClient = null;
         try {
-            httpClient = HttpClientBuilder.create().build();
-            HttpPost httpPost = new HttpPost(url);
-
-            List<NameValuePair> nvps = new ArrayList<>(params.size());
-            if (!params.isEmpty()) {
-                Set<Map.Entry<String, Object>> entrySet = params.entrySet();
-                for (Map.Entry<String, Object> entry : entrySet) {
-                    nvps.add(new BasicNameValuePair(entry.getKey(), entry.getValue().toString()));
-                }
-            }
-            httpPost.addHeader("Content-Type", "application/x-www-form-urlencoded");
-            httpPost.addHeader("Accept-Language", "zh-cn");
-            httpPost.addHeader("Connection", "close");
-            httpPost.setEntity(new UrlEncodedFormEntity(nvps, encoding));
-            RequestConfig requestConfig = RequestConfig.custom().setSocketTimeout(SO_TIMEOUT).setConnectTimeout(CONNECT_TIMEOUT).build();
-            httpPost.setConfig(requestConfig);
-            HttpResponse httpResponse = httpClient.execute(httpPost);
-            HttpEntity httpEntity = httpResponse.getEntity();
-            if (httpEntity != null) {
-                response = EntityUtils.toString(httpEntity, encoding).replaceAll("\r\n", "");
-                EntityUtils.consume(httpEntity);
-            }
-            httpPost.abort();
+            final Response httpResponse = AsyncHttpClientUtil.doPostInFuture(url, builder -> {
+                builder.addHeader("Content-Type", "application/x-www-form-urlencoded");
+                builder.addHeader("Accept-Language", "zh-cn");
+                builder.setRequestTimeout(Duration.ofMillis(SO_TIMEOUT));
+                params.forEach((key, value) -> builder.addFormParam(key, value.toString()));
+            }).getValue().get(SO_TIMEOUT, TimeUnit.MILLISECONDS);
+            response = httpResponse.getResponseBody(Charset.forName(encoding)).replaceAll("\r\n", "");
         } catch (Exception e) {
             log.error("执行Http Post请求失败! Exception: {}", e.getMessage());
-        } finally {
-            if (null != httpClient) {
-                try {
-                    httpClient.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
         }
         log.debug("Http Post执行后响应内容：{}", response);
         return response;
@@ -173,41 +131,15 @@ public final class HttpClient4Util {
         log.debug("执行Http Post请求,地址: {}, 参数: {} ", url, params);
 
         String response = null;
-        CloseableHttpClient httpClient = null;
         try {
-            httpClient = HttpClients.createDefault();
-            HttpPost httpPost = new HttpPost(url);
-
-            RequestConfig requestConfig = RequestConfig.custom().setSocketTimeout(SO_TIMEOUT).setConnectTimeout(CONNECT_TIMEOUT).build();
-            httpPost.setConfig(requestConfig);
-
-            StringEntity postEntity = new StringEntity(params, "UTF-8");
-
-            //httpPost.addHeader("Content-Type", "application/x-www-form-urlencoded");
-            // httpPost.addHeader("Content-Type", "application/json");
-            httpPost.addHeader("Content-Type", "text/xml");
-            // 及时释放连接，不缓存连接(防止close_wait)
-            httpPost.addHeader("Connection", "close");
-            httpPost.setEntity(postEntity);
-
-            HttpResponse httpResponse = httpClient.execute(httpPost);
-            HttpEntity httpEntity = httpResponse.getEntity();
-            if (httpEntity != null) {
-                response = EntityUtils.toString(httpEntity, encoding).replaceAll("\r\n", "");
-                EntityUtils.consume(httpEntity);
-            }
-
-            httpPost.abort();
+            final Response httpResponse = AsyncHttpClientUtil.doPostInFuture(url, builder -> builder
+                    .addHeader("Content-Type", "text/xml")
+                    .setRequestTimeout(Duration.ofMillis(SO_TIMEOUT))
+                    .setBody(params.getBytes(StandardCharsets.UTF_8))
+            ).getValue().get(SO_TIMEOUT, TimeUnit.MILLISECONDS);
+            response = httpResponse.getResponseBody(Charset.forName(encoding)).replaceAll("\r\n", "");
         } catch (Exception e) {
             log.error("执行Http Post请求失败! Exception: {}", e.getMessage());
-        } finally {
-            if (null != httpClient) {
-                try {
-                    httpClient.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
         }
         log.debug("Http Post执行后响应内容：{} ", response);
         return response;
@@ -226,30 +158,14 @@ public final class HttpClient4Util {
         log.debug("执行Http get请求,地址: {} ", url);
 
         String response = null;
-        HttpClient httpClient;
         try {
-            httpClient = HttpClientBuilder.create().build();
-            HttpGet httpGet = new HttpGet(url);
-
-            RequestConfig requestConfig = RequestConfig.custom().setSocketTimeout(SO_TIMEOUT).setConnectTimeout(CONNECT_TIMEOUT).build();
-            httpGet.setConfig(requestConfig);
-
-            httpGet.addHeader("Content-Type", "application/x-www-form-urlencoded");
-            httpGet.addHeader("Accept-Language", "zh-cn");
-            // 及时释放连接，不缓存连接(防止close_wait)
-            httpGet.addHeader("Connection", "close");
-
-
-            HttpResponse httpResponse = httpClient.execute(httpGet);
-            HttpEntity httpEntity = httpResponse.getEntity();
-            if (httpEntity != null) {
-                response = EntityUtils.toString(httpEntity, encoding).replaceAll("\r\n", "");
-                EntityUtils.consume(httpEntity);
-            }
-
-            httpGet.abort();
+            final Response httpResponse = AsyncHttpClientUtil.doGetInFuture(url, builder -> builder
+                    .addHeader("Content-Type", "application/x-www-form-urlencoded")
+                    .addHeader("Accept-Language", "zh-cn")
+                    .setRequestTimeout(Duration.ofMillis(SO_TIMEOUT))
+            ).getValue().get(SO_TIMEOUT, TimeUnit.MILLISECONDS);
+            response = httpResponse.getResponseBody(Charset.forName(encoding)).replaceAll("\r\n", "");
         } catch (Exception e) {
-            e.printStackTrace();
             log.error("执行Http GET请求失败! Exception: {}", e.getMessage());
         }
         log.debug("Http GET执行后响应内容：{}", response);
@@ -258,23 +174,15 @@ public final class HttpClient4Util {
 
     private static String doPost(String url, String body) {
         // post请求
-        CloseableHttpClient httpClient;
-        HttpPost httpPost;
-        HttpResponse response;
-        String responseContent;
         try {
-            // 创建 httpClient
-            httpClient = HttpClients.createDefault();
-            httpPost = new HttpPost(url);
-            httpPost.addHeader("Content-Type", "application/json");
-            httpPost.addHeader("Authorization", "Bearer " + new properties().getProperties("cache/application.properties", "api.openai"));
-            httpPost.setEntity(new StringEntity(body, StandardCharsets.UTF_8));
-            response = httpClient.execute(httpPost);
-            HttpEntity httpEntity = response.getEntity();
-            responseContent = EntityUtils.toString(httpEntity, "UTF-8");
-            EntityUtils.consume(httpEntity);
-            return responseContent;
-        } catch (IOException e) {
+            final String authorization = "Bearer " + new properties().getProperties("cache/application.properties", "api.openai");
+            final Response response = AsyncHttpClientUtil.doPost(url, builder -> builder
+                    .addHeader("Content-Type", "application/json")
+                    .addHeader("Authorization", authorization)
+                    .setBody(body.getBytes(StandardCharsets.UTF_8))
+            ).getValue();
+            return response.getResponseBody(StandardCharsets.UTF_8);
+        } catch (Exception e) {
             log.info("异常消息:" + e.getMessage());
             return "";
         }
@@ -282,27 +190,19 @@ public final class HttpClient4Util {
     }
 
     public static void doPostAsync(String url, String body, Consumer<String> callback) throws IOException {
-        AsyncHttpClient client = new DefaultAsyncHttpClient();
-        try {
-            // 构建 HTTP 请求
-            String authorization = "Bearer " + new properties().getProperties("cache/application.properties", "api.openai");
-            //noinspection deprecation
-            var requestBody = new StringBody(body, StandardCharsets.UTF_8);
-            Response response = client.preparePost(url)
-                    .setHeader("Content-Type", "application/json")
-                    .setHeader("Authorization", authorization)
-                    .setBody(String.valueOf(requestBody))
-                    .execute()
-                    .toCompletableFuture()
-                    .join();
+        // 构建 HTTP 请求
+        String authorization = "Bearer " + new properties().getProperties("cache/application.properties", "api.openai");
+        AsyncHttpClientUtil.doPostWithResultHandler(url, builder -> builder
+                .setHeader("Content-Type", "application/json")
+                .setHeader("Authorization", authorization)
+                .setBody(body.getBytes(StandardCharsets.UTF_8)), (request, response) -> {
+            if (response == null) {
+                log.error("异步请求 {} 失败", url);
+                return;
+            }
             // 处理 HTTP 响应
-            String responseBody = response.getResponseBody();
-            callback.accept(responseBody);
-        } catch (Exception e) {
-            log.error(e.getMessage());
-        }
-        // 关闭异步 HTTP 客户端
-        client.close();
+            callback.accept(response.getResponseBody());
+        });
     }
 
-}
\ No newline at end of file
+}
@@ -1,32 +1,25 @@
 package org.Simbot.utils;
 
 
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.entity.UrlEncodedFormEntity;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.entity.mime.MultipartEntityBuilder;
-import org.apache.http.entity.mime.content.FileBody;
-import org.apache.http.entity.mime.content.StringBody;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.message.BasicNameValuePair;
+import org.asynchttpclient.BoundRequestBuilder;
+import org.asynchttpclient.ListenableFuture;
+import org.asynchttpclient.Response;
+import org.asynchttpclient.request.body.multipart.FilePart;
+import org.asynchttpclient.request.body.multipart.StringPart;
 
-import java.io.*;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
- * HttpClient工具类
+ * HttpClient工具类, 底层统一使用 {@link AsyncHttpClientUtil} 的共享连接池
  *
  * @author mirai-MIC
  * @since 2021-06-10
@@ -74,8 +67,7 @@ public class HttpUtils {
      * @return 响应内容
      */
     public static String get(String url, Map<String, String> headers) {
-        HttpGet get = new HttpGet(url);
-        return getRespString(get, headers);
+        return getRespString(AsyncHttpClientUtil.doGetInFuture(url, builder -> setHeaders(builder, headers)).getValue());
     }
 
     /**
@@ -108,9 +100,10 @@ public class HttpUtils {
      * @return 响应内容
      */
     public static String post(String url, Map<String, String> headers, Map<String, String> params) {
-        HttpPost post = new HttpPost(url);
-        post.setEntity(getHttpEntity(params));
-        return getRespString(post, headers);
+        return getRespString(AsyncHttpClientUtil.doPostInFuture(url, builder -> {
+            setHeaders(builder, headers);
+            setFormParams(builder, params);
+        }).getValue());
     }
 
     /**
@@ -133,19 +126,23 @@ public class HttpUtils {
      * @return 响应内容
      */
     public static String postJson(String url, Map<String, String> headers, String json) {
-        HttpPost post = new HttpPost(url);
-        post.setHeader("Content-type", "application/json");
-        post.setEntity(new StringEntity(json, UTF8));
-        return getRespString(post, headers);
+        return getRespString(AsyncHttpClientUtil.doPostInFuture(url, builder -> {
+            setHeaders(builder, headers);
+            builder.setHeader("Content-type", "application/json")
+                    .setBody(json.getBytes(StandardCharsets.UTF_8));
+        }).getValue());
     }
 
 
-    public static String sendGet(String url) throws IOException {
-        OkHttpClient client = new OkHttpClient();
-        Request request = new Request.Builder()
-                .url(url)
-                .build();
-        return client.newCall(request).execute().request().url().toString();
+    /**
+     * 执行get请求并跟随重定向, 获取最终的请求地址
+     *
+     * @param url 请求地址
+     * @return 重定向后的地址
+     */
+    public static String sendGet(String url) {
+        final Response response = AsyncHttpClientUtil.doGet(url, builder -> builder.setFollowRedirect(true)).getValue();
+        return response.getUri().toUrl();
     }
 
     /**
@@ -168,26 +165,24 @@ public class HttpUtils {
      * @return 响应内容
      */
     public static String postFile(String url, Map<String, String> headers, Map<String, Object> params) {
-        HttpPost post = new HttpPost(url);
-        MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-        if (Objects.nonNull(params) && !params.isEmpty()) {
-            for (Entry<String, Object> entry : params.entrySet()) {
-                String key = entry.getKey();
-                Object value = entry.getValue();
-                if (Objects.isNull(value)) {
-                    builder.addPart(key, new StringBody("", ContentType.TEXT_PLAIN));
-                } else {
-                    if (value instanceof File) {
-                        builder.addPart(key, new FileBody((File) value));
+        return getRespString(AsyncHttpClientUtil.doPostInFuture(url, builder -> {
+            setHeaders(builder, headers);
+            if (Objects.nonNull(params) && !params.isEmpty()) {
+                for (Entry<String, Object> entry : params.entrySet()) {
+                    String key = entry.getKey();
+                    Object value = entry.getValue();
+                    if (Objects.isNull(value)) {
+                        builder.addBodyPart(new StringPart(key, "", "text/plain", StandardCharsets.UTF_8));
                     } else {
-                        builder.addPart(key, new StringBody(value.toString(), ContentType.TEXT_PLAIN));
+                        if (value instanceof File) {
+                            builder.addBodyPart(new FilePart(key, (File) value));
+                        } else {
+                            builder.addBodyPart(new StringPart(key, value.toString(), "text/plain", StandardCharsets.UTF_8));
+                        }
                     }
                 }
             }
-        }
-        HttpEntity entity = builder.build();
-        post.setEntity(entity);
-        return getRespString(post, headers);
+        }).getValue());
     }
 
     /**
@@ -198,7 +193,6 @@ public class HttpUtils {
      * @param fileName 文件名称（如：hello.jpg）
      */
     public static void download(String url, String path, String fileName) {
-        HttpGet get = new HttpGet(url);
         File dir = new File(path);
         if (!dir.exists()) {
             dir.mkdirs();
@@ -221,7 +215,7 @@ public class HttpUtils {
                 e.printStackTrace();
             }
         }
-        try (FileOutputStream fos = new FileOutputStream(file); InputStream in = getRespInputStream(get, null)) {
+        try (FileOutputStream fos = new FileOutputStream(file); InputStream in = getRespInputStream(url, null)) {
             if (Objects.isNull(in)) {
                 return;
             }
@@ -234,100 +228,72 @@ public class HttpUtils {
     }
 
     /**
-     * 获取请求体HttpEntity
+     * 设置表单参数
      *
-     * @param params 请求参数
-     * @return HttpEntity
+     * @param builder 请求构建器
+     * @param params  请求参数
      */
-    private static HttpEntity getHttpEntity(Map<String, String> params) {
-        List<BasicNameValuePair> pairs = new ArrayList<BasicNameValuePair>();
-        for (Entry<String, String> entry : params.entrySet()) {
-            pairs.add(new BasicNameValuePair(entry.getKey(), entry.getValue()));
+    private static void setFormParams(BoundRequestBuilder builder, Map<String, String> params) {
+        if (Objects.isNull(params)) {
+            return;
         }
-        HttpEntity entity = null;
-        try {
-            entity = new UrlEncodedFormEntity(pairs, UTF8);
-        } catch (UnsupportedEncodingException e) {
-            e.printStackTrace();
+        builder.setHeader("Content-Type", "application/x-www-form-urlencoded; charset=" + UTF8);
+        for (Entry<String, String> entry : params.entrySet()) {
+            builder.addFormParam(entry.getKey(), entry.getValue());
         }
-        return entity;
     }
 
     /**
      * 设置请求头
      *
-     * @param request 请求对象
+     * @param builder 请求构建器
      * @param headers 请求头参数
      */
-    private static void setHeaders(HttpUriRequest request, Map<String, String> headers) {
+    private static void setHeaders(BoundRequestBuilder builder, Map<String, String> headers) {
         if (Objects.nonNull(headers) && !headers.isEmpty()) {
             // 请求头不为空，则设置对应请求头
             for (Entry<String, String> entry : headers.entrySet()) {
-                request.setHeader(entry.getKey(), entry.getValue());
+                builder.setHeader(entry.getKey(), entry.getValue());
             }
         } else {
             // 请求为空时，设置默认请求头
-            request.setHeader("Connection", "keep-alive");
-            request.setHeader("Accept-Encoding", "gzip, deflate, br");
-            request.setHeader("Accept", "*/*");
-            request.setHeader("User-Agent",
-                    "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/84.0.4147.135 Safari/537.36");
+            builder.setHeader("Connection", "keep-alive");
+            builder.setHeader("Accept-Encoding", "gzip, deflate, br");
+            builder.setHeader("Accept", "*/*");
+            builder.setHeader("User-Agent", AsyncHttpClientUtil.DEFAULT_USER_AGENT);
         }
     }
 
     /**
-     * 执行请求，获取响应流
+     * 执行get请求，获取响应流
      *
-     * @param request 请求对象
+     * @param url     请求地址
+     * @param headers 请求头参数
      * @return 响应内容
      */
-    private static InputStream getRespInputStream(HttpUriRequest request, Map<String, String> headers) {
-        // 设置请求头
-        setHeaders(request, headers);
-        // 获取响应对象
-        HttpResponse response = null;
+    private static InputStream getRespInputStream(String url, Map<String, String> headers) {
+        final Consumer<BoundRequestBuilder> preRequest = builder -> setHeaders(builder, headers);
         try {
-            response = HttpClients.createDefault().execute(request);
+            return AsyncHttpClientUtil.doGet(url, preRequest).getValue().getResponseBodyAsStream();
         } catch (Exception e) {
             e.printStackTrace();
             return null;
         }
-        // 获取Entity对象
-        HttpEntity entity = response.getEntity();
-        // 获取响应信息流
-        InputStream in = null;
-        if (Objects.nonNull(entity)) {
-            try {
-                in = entity.getContent();
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }
-        return in;
     }
 
     /**
-     * 执行请求，获取响应内容
+     * 等待请求完成，获取响应内容
      *
-     * @param request 请求对象
+     * @param future 请求future
      * @return 响应内容
      */
-    private static String getRespString(HttpUriRequest request, Map<String, String> headers) {
-        byte[] bytes = new byte[BYTE_ARRAY_LENGTH];
-        int len = 0;
-        try (InputStream in = getRespInputStream(request, headers);
-             ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-            if (Objects.isNull(in)) {
-                return "";
-            }
-            while ((len = in.read(bytes)) != -1) {
-                bos.write(bytes, 0, len);
-            }
-            return bos.toString(UTF8);
+    private static String getRespString(ListenableFuture<Response> future) {
+        try {
+            return future.get().getResponseBody(StandardCharsets.UTF_8);
         } catch (Exception e) {
             e.printStackTrace();
         }
         return "";
     }
 
-}
\ No newline at end of file
+}
@@ -2,19 +2,17 @@ package org.Simbot.utils;
 
 import cn.hutool.core.io.FileUtil;
 import lombok.SneakyThrows;
+import org.Simbot.utils.image.FontRegistry;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
-import java.awt.font.FontRenderContext;
-import java.awt.font.LineBreakMeasurer;
-import java.awt.font.TextAttribute;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.text.AttributedString;
+import java.text.BreakIterator;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 图片工具类
@@ -25,40 +23,64 @@ public class ImageUtil {
     private static final String fontPath = "cache/custom.ttf";
     //文生图图片输出路径
     private static final String outputPath = "cache/tempImg/";
-
-    private static final Canvas CANVAS = new Canvas();
+    //分页渲染时每页的行数, 约2000像素高
+    private static final int LINES_PER_PAGE = 40;
 
     /**
-     * 分割文本，比起正则表达式，这个方法的效率更高
+     * 分割文本, 按段落贪心分行, 字符宽度取自字体注册表中缓存的度量, 多次渲染复用, 不再为每段文本构建LineBreakMeasurer
      *
-     * @param text     文本
-     * @param font     字体
-     * @param maxWidth 最大宽度
+     * @param text      文本
+     * @param fontEntry 字体及度量
+     * @param maxWidth  最大宽度
      * @return 分割后的文本
      */
-    private static List<String> splitText(final String text, final Font font, final int maxWidth) {
-        final AttributedString attributedText = new AttributedString(text);
-        attributedText.addAttribute(TextAttribute.FONT, font);
-        final LineBreakMeasurer lineBreakMeasurer = new LineBreakMeasurer(attributedText.getIterator(), new FontRenderContext(null, true, true));
-
+    private static List<String> splitText(final String text, final FontRegistry.FontEntry fontEntry, final int maxWidth) {
         final List<String> lines = new ArrayList<>();
-        while (lineBreakMeasurer.getPosition() < text.length()) {
-            int endIndex = lineBreakMeasurer.nextOffset(maxWidth);
-            String line = text.substring(lineBreakMeasurer.getPosition(), endIndex);
-
+        final BreakIterator breakIterator = BreakIterator.getLineInstance();
+        int paragraphStart = 0;
+        while (paragraphStart < text.length()) {
             // 处理换行符
-            final int newLineIndex = line.indexOf("\n");
-            if (newLineIndex != -1) {
-                endIndex = lineBreakMeasurer.getPosition() + newLineIndex + 1;
-                line = line.substring(0, newLineIndex);
-            }
-
-            lines.add(line);
-            lineBreakMeasurer.setPosition(endIndex);
+            final int newLineIndex = text.indexOf('\n', paragraphStart);
+            final int paragraphEnd = newLineIndex == -1 ? text.length() : newLineIndex;
+            splitParagraph(text.substring(paragraphStart, paragraphEnd), fontEntry, maxWidth, breakIterator, lines);
+            paragraphStart = paragraphEnd + 1;
         }
         return lines;
     }
 
+    /**
+     * 分割单个段落: 超出宽度时在本行最后一个可断行的位置断开(英文单词之间、中文字符之间),
+     * 没有可断行的位置时(如超长的链接)直接在超出的字符前断开; 空白不会出现在行首, 行尾的空白不影响断行
+     */
+    private static void splitParagraph(final String paragraph, final FontRegistry.FontEntry fontEntry, final int maxWidth,
+                                       final BreakIterator breakIterator, final List<String> lines) {
+        if (paragraph.isEmpty()) {
+            lines.add("");
+            return;
+        }
+        breakIterator.setText(paragraph);
+        int lineStart = 0;
+        float width = 0;
+        int i = 0;
+        while (i < paragraph.length()) {
+            final int codePoint = paragraph.codePointAt(i);
+            final float advance = fontEntry.advance(codePoint);
+            if (width + advance > maxWidth && i > lineStart && !Character.isWhitespace(codePoint)) {
+                final int boundary = breakIterator.isBoundary(i) ? i : breakIterator.preceding(i);
+                final int lineEnd = boundary > lineStart ? boundary : i;
+                lines.add(paragraph.substring(lineStart, lineEnd));
+                //从断开处重新计算下一行的宽度
+                lineStart = lineEnd;
+                i = lineEnd;
+                width = 0;
+                continue;
+            }
+            width += advance;
+            i += Character.charCount(codePoint);
+        }
+        lines.add(paragraph.substring(lineStart));
+    }
+
     /**
      * 把一段文本生成图片
      *
@@ -66,42 +88,75 @@ public class ImageUtil {
      * @param maxWidth 最大宽度
      * @return 图片
      */
-    @SneakyThrows
     public static ByteArrayInputStream createImage(final String text, final int maxWidth) {
-//        outputPath = outputPath + imageName + ".png";
+        final List<ByteArrayInputStream> pages = new ArrayList<>(1);
+        renderPages(text, maxWidth, Integer.MAX_VALUE, pages::add);
+        return pages.get(0);
+    }
+
+    /**
+     * 把一段文本按固定行数分页生成多张图片, 长文本不会生成超大图片
+     *
+     * @param text 文本
+     * @return 每页一张图片
+     */
+    public static List<ByteArrayInputStream> createImagePages(final String text) {
+        final List<ByteArrayInputStream> pages = new ArrayList<>();
+        renderPages(text, 500, LINES_PER_PAGE, pages::add);
+        return pages;
+    }
+
+    /**
+     * 分页渲染文本, 所有页复用同一块画布, 峰值内存只与单页大小有关, 与文本长度无关
+     *
+     * @param text         文本
+     * @param maxWidth     最大宽度
+     * @param linesPerPage 每页行数
+     * @param pageConsumer 每渲染完一页即回调一次
+     */
+    @SneakyThrows
+    public static void renderPages(final String text, final int maxWidth, final int linesPerPage, final Consumer<ByteArrayInputStream> pageConsumer) {
         final float fontSize = 26;//字体大小
-        final Font font = loadFont(fontPath, fontSize);
-        final FontMetrics fontMetrics = CANVAS.getFontMetrics(font);
+        //字体和度量只在首次渲染时加载, 之后复用
+        final FontRegistry.FontEntry fontEntry = FontRegistry.get(fontPath, fontSize);
+        final Font font = fontEntry.font();
         //计算文本的宽度
-        final List<String> lines = splitText(text, font, maxWidth * 2);
+        final List<String> lines = splitText(text, fontEntry, maxWidth * 2);
+        if (lines.isEmpty()) {
+            lines.add("");
+        }
+        final int lineHeight = fontEntry.lineHeight() + 20;
+        final int pageLines = Math.max(1, Math.min(linesPerPage, lines.size()));
         final int width = maxWidth * 2 + 40;//左右各20像素的边距
-        final int height = (fontMetrics.getHeight() + 20) * lines.size() + 20;//上下各10像素的边距
-        // 创建一个ByteArrayOutputStream,用于存放字节数据,指定大小为width*height*4,每个像素大约占用4个字节（RGBA）
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(width * height * 4);
-        //创建图片,RGB比ARGB效率高
-        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        final Graphics2D graphics = image.createGraphics();
-        //抗锯齿,虽然会降低性能，但是图片效果会更清晰
-        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB);
-        graphics.setColor(Color.WHITE);
-        graphics.fillRect(0, 0, width, height);
-        graphics.setColor(Color.BLACK);
-        graphics.setFont(font);
-        //绘制文本
-        for (int i = 0; i < lines.size(); i++) {
-            graphics.drawString(lines.get(i), 20, 20 + (fontMetrics.getHeight() + 20) * i + fontMetrics.getAscent());
+        //创建整页大小的画布, 各页复用, RGB比ARGB效率高
+        final BufferedImage canvas = new BufferedImage(width, lineHeight * pageLines + 20, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = canvas.createGraphics();
+        try {
+            //抗锯齿,虽然会降低性能，但是图片效果会更清晰
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB);
+            //小数宽度度量, 与分行时使用的 FontRegistry.RENDER_CONTEXT 一致
+            graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+            graphics.setFont(font);
+            for (int start = 0; start < lines.size(); start += pageLines) {
+                final int end = Math.min(lines.size(), start + pageLines);
+                final int height = lineHeight * (end - start) + 20;//上下各10像素的边距
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.setColor(Color.BLACK);
+                //绘制文本
+                for (int i = start; i < end; i++) {
+                    graphics.drawString(lines.get(i), 20, 20 + lineHeight * (i - start) + fontEntry.ascent());
+                }
+                // 将当前页写入ByteArrayOutputStream, 最后一页不满时只输出画布的上半部分
+                final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+                ImageIO.write(height == canvas.getHeight() ? canvas : canvas.getSubimage(0, 0, width, height), "png", byteArrayOutputStream);
+                pageConsumer.accept(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()));
+            }
+        } finally {
+            //释放资源
+            graphics.dispose();
         }
-        //释放资源
-        graphics.dispose();
-        //保存图片
-//        try (FileOutputStream outputStream = new FileOutputStream(outputPath)) {
-//            ImageIO.write(image, "png", outputStream);
-//        }
-        // 将BufferedImage写入ByteArrayOutputStream
-        ImageIO.write(image, "png", byteArrayOutputStream);
-        // 使用字节数组创建ByteArrayInputStream
-        return new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
     }
 
     /**
@@ -116,17 +171,14 @@ public class ImageUtil {
 
 
     /**
-     * 加载自定义字体
+     * 加载自定义字体, 同一字体文件和字号只加载一次
      *
      * @param fontPath 字体路径
      * @param fontSize 字体大小
      * @return 字体
      */
-    @SneakyThrows
     public static Font loadFont(final String fontPath, final float fontSize) {
-        final File fontFile = new File(fontPath);
-        final Font font = Font.createFont(Font.TRUETYPE_FONT, fontFile);
-        return font.deriveFont(fontSize);
+        return FontRegistry.get(fontPath, fontSize).font();
     }
 
     /**
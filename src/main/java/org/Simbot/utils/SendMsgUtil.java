@@ -13,6 +13,7 @@ import love.forte.simbot.message.MessagesBuilder;
 import love.forte.simbot.resources.Resource;
 import net.mamoe.mirai.Bot;
 import net.mamoe.mirai.message.action.AsyncRecallResult;
+import net.mamoe.mirai.message.data.ForwardMessage;
 import net.mamoe.mirai.utils.ExternalResource;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Component;
@@ -20,6 +21,7 @@ import org.springframework.stereotype.Component;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URL;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -75,10 +77,18 @@ public class SendMsgUtil {
         final Group group = event.getGroup();
         final Member author = event.getAuthor();
         log.info("发送回复群图片消息[{}] ==> [{}]:{}", group.getName(), author.getNickOrUsername(), msg);
-        final var messagesBuilder = new MessagesBuilder();
-        final ByteArrayInputStream image = ImageUtil.createImage(msg);
-        messagesBuilder.image(Resource.of(image));
-        return event.replyBlocking(messagesBuilder.build());
+        //长文本分页渲染, 多页时以合并转发消息发送
+        final List<ByteArrayInputStream> pages = ImageUtil.createImagePages(msg);
+        if (pages.size() == 1) {
+            final var messagesBuilder = new MessagesBuilder();
+            messagesBuilder.image(Resource.of(pages.get(0)));
+            return event.replyBlocking(messagesBuilder.build());
+        }
+        final var forwardMessageBuilder = new MiraiForwardMessageBuilder(ForwardMessage.DisplayStrategy.Default);
+        for (final ByteArrayInputStream page : pages) {
+            forwardMessageBuilder.add(event.getBot(), new MessagesBuilder().image(Resource.of(page)).build());
+        }
+        return event.getSource().sendBlocking(forwardMessageBuilder.build());
     }
 
     /**
@@ -167,15 +177,17 @@ public class SendMsgUtil {
      */
     @SneakyThrows
     public static void sendFriendImage(final long id, final String build) {
-        final var image = ImageUtil.createImage(build);
-        try (var resource = ExternalResource.create(image)) {
-            Bot.getInstances().stream()
-                    .map(bot -> bot.getFriend(id))
-                    .filter(Objects::nonNull)
-                    .findFirst().ifPresent(friend -> {
-                        friend.uploadImage(resource);
-                        log.info("发送私聊图片[{}]:{}", friend.getNick(), build);
-                    });
+        //长文本分页渲染, 逐页上传
+        for (final ByteArrayInputStream image : ImageUtil.createImagePages(build)) {
+            try (var resource = ExternalResource.create(image)) {
+                Bot.getInstances().stream()
+                        .map(bot -> bot.getFriend(id))
+                        .filter(Objects::nonNull)
+                        .findFirst().ifPresent(friend -> {
+                            friend.uploadImage(resource);
+                            log.info("发送私聊图片[{}]:{}", friend.getNick(), build);
+                        });
+            }
         }
     }
 
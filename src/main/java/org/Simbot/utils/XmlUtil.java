@@ -1,11 +1,14 @@
 package org.Simbot.utils;
 
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
 import cn.hutool.core.lang.Pair;
 import cn.hutool.core.util.StrUtil;
 import com.rometools.rome.feed.synd.SyndFeed;
 import com.rometools.rome.io.SyndFeedInput;
 import com.rometools.rome.io.XmlReader;
 import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
 import org.asynchttpclient.Request;
 import org.asynchttpclient.Response;
 
@@ -20,8 +23,12 @@ import java.util.regex.Pattern;
  * @description ：xml工具类
  * @date ：2023/09/21 12:28
  */
+@Slf4j
 public class XmlUtil {
 
+    //rss条件请求缓存, key为feed url, value为上次响应的ETag/Last-Modified及解析后的SyndFeed
+    private static final LRUCache<String, FeedValidator> feedValidatorCache = CacheUtil.newLRUCache(64);
+
     /**
      * 提取xml中的图片链接
      *
@@ -46,14 +53,67 @@ public class XmlUtil {
 
     /**
      * 从url获取xml数据
+     * <p>
+     * 使用条件请求(If-None-Match/If-Modified-Since), 服务端返回304时直接复用上次解析的SyndFeed, 不再下载和解析完整文档.
+     * SyndFeed是可变对象, 缓存中保存的是副本, 每次返回的也是副本, 调用方修改不会影响其他调用方
      *
      * @param url url
      * @return SyndFeed xml数据
      */
     @SneakyThrows
     public static SyndFeed getXmlFeedFromUrl(final String url) {
-        final Pair<Request, Response> pair = AsyncHttpClientUtil.doGet(url);
-        final InputStream stream = pair.getValue().getResponseBodyAsStream();
-        return new SyndFeedInput().build(new XmlReader(stream));
+        final FeedValidator validator = feedValidatorCache.get(url);
+        final Pair<Request, Response> pair = AsyncHttpClientUtil.doGet(url, builder -> {
+            if (validator == null) {
+                return;
+            }
+            if (StrUtil.isNotBlank(validator.etag())) {
+                builder.setHeader("If-None-Match", validator.etag());
+            }
+            if (StrUtil.isNotBlank(validator.lastModified())) {
+                builder.setHeader("If-Modified-Since", validator.lastModified());
+            }
+        });
+        final Response response = pair.getValue();
+        if (response.getStatusCode() == 304) {
+            if (validator != null) {
+                log.debug("rss未修改, 复用缓存: {}", url);
+                return (SyndFeed) validator.feed().clone();
+            }
+            //缓存已被淘汰, 重新发起无条件请求
+            return parseFeed(url, AsyncHttpClientUtil.doGet(url).getValue());
+        }
+        return parseFeed(url, response);
+    }
+
+    /**
+     * 解析rss响应, 响应成功且带有校验头时记录到条件请求缓存
+     *
+     * @param url      url
+     * @param response 响应
+     * @return SyndFeed xml数据
+     */
+    @SneakyThrows
+    private static SyndFeed parseFeed(final String url, final Response response) {
+        final InputStream stream = response.getResponseBodyAsStream();
+        final SyndFeed feed = new SyndFeedInput().build(new XmlReader(stream));
+        final String etag = response.getHeader("ETag");
+        final String lastModified = response.getHeader("Last-Modified");
+        if (response.getStatusCode() == 200 && (StrUtil.isNotBlank(etag) || StrUtil.isNotBlank(lastModified))) {
+            feedValidatorCache.put(url, new FeedValidator(etag, lastModified, (SyndFeed) feed.clone()));
+        } else {
+            feedValidatorCache.remove(url);
+        }
+        return feed;
+    }
+
+    /**
+     * rss条件请求校验信息
+     *
+     * @param etag         响应的ETag
+     * @param lastModified 响应的Last-Modified
+     * @param feed         解析后的SyndFeed的副本, 不直接返回给调用方
+     */
+    private record FeedValidator(String etag, String lastModified, SyndFeed feed) {
     }
 }
@@ -0,0 +1,168 @@
+package org.Simbot.utils.cache;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.Simbot.config.threadpool.IOThreadPool;
+import org.redisson.api.RMapCache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * @author ：ycvk
+ * @description ：近端缓存的一个区域. 本地同名的缓存区域 RegionCache 为L1, redis RMapCache 为L2, 两级使用相同的过期时间;
+ * 写入时同时写redis, 写入和删除后通过redis topic通知其他实例删除本地缓存. 由 {@link NearCacheManager#region} 创建.
+ * 设置了refreshAfterWrite时, 命中的缓存项写入时间超过该值后在后台重新加载, 加载完成前仍返回旧值
+ * @date ：2026/10/18 21:40
+ */
+@Slf4j
+public class NearCache<V> {
+
+    @Getter
+    private final String region;
+    @Getter
+    private final Duration ttl;
+    @Getter
+    private final Duration refreshAfterWrite;
+    private final RegionCache<V> local;
+    private final RMapCache<String, V> remote;
+    private final NearCacheManager manager;
+
+    //正在后台重新加载的key, 同一key同时只有一个重新加载任务
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    NearCache(final String region, final Duration ttl, final Duration refreshAfterWrite, final RegionCache<V> local,
+              final RMapCache<String, V> remote, final NearCacheManager manager) {
+        this.region = region;
+        this.ttl = ttl;
+        this.refreshAfterWrite = refreshAfterWrite;
+        this.local = local;
+        this.remote = remote;
+        this.manager = manager;
+    }
+
+    /**
+     * 依次从本地缓存和redis中获取, redis命中时回填本地缓存
+     *
+     * @param key key
+     * @return 都未命中时返回null
+     */
+    public V get(final String key) {
+        final V cached = local.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final V value = remote.get(key);
+        if (value != null) {
+            log.info("从redis中获取 {}::{}", region, key);
+            local.put(key, value, remainingTtl(key));
+        }
+        return value;
+    }
+
+    /**
+     * 获取缓存, 两级都未命中时调用加载函数并写入两级缓存; 命中但已超过refreshAfterWrite时返回旧值并在后台重新加载
+     *
+     * @param key    key
+     * @param loader 加载函数, 返回null或空集合时不缓存
+     * @return 值
+     */
+    public V get(final String key, final Function<String, V> loader) {
+        final V cached = get(key);
+        if (cached != null) {
+            refreshIfStale(key, loader);
+            return cached;
+        }
+        return load(key, loader);
+    }
+
+    private V load(final String key, final Function<String, V> loader) {
+        final V value = loader.apply(key);
+        if (value != null && !(value instanceof final Collection<?> collection && collection.isEmpty())) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * 缓存项的写入时间 = 过期时间 - 剩余过期时间, 超过refreshAfterWrite时提交后台重新加载,
+     * 加载失败时保留旧值, 直到过期
+     */
+    private void refreshIfStale(final String key, final Function<String, V> loader) {
+        if (refreshAfterWrite == null) {
+            return;
+        }
+        final Duration remaining = local.getExpiresAfter(key).orElse(null);
+        if (remaining == null || ttl.minus(remaining).compareTo(refreshAfterWrite) < 0) {
+            return;
+        }
+        if (!refreshing.add(key)) {
+            return;
+        }
+        IOThreadPool.submit(() -> {
+            try {
+                log.info("后台重新加载 {}::{}", region, key);
+                load(key, loader);
+            } catch (final Exception e) {
+                log.warn("后台重新加载 {}::{} 失败, 继续使用旧值: {}", region, key, e.getMessage());
+            } finally {
+                refreshing.remove(key);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 写入两级缓存, redis写入成功后再通知其他实例删除本地的旧值, 避免其他实例在写入完成前从redis读回旧值
+     *
+     * @param key   key
+     * @param value 值
+     */
+    public void put(final String key, final V value) {
+        local.put(key, value, ttl);
+        remote.fastPutAsync(key, value, ttl.toMillis(), TimeUnit.MILLISECONDS).whenComplete((added, throwable) -> {
+            if (throwable != null) {
+                log.warn("写入redis {}::{} 失败, 不通知其他实例: {}", region, key, throwable.getMessage());
+                return;
+            }
+            manager.publishInvalidation(region, key);
+        });
+    }
+
+    /**
+     * 删除两级缓存, redis删除成功后再通知其他实例删除本地缓存
+     *
+     * @param key key
+     */
+    public void invalidate(final String key) {
+        evictLocal(key);
+        remote.fastRemoveAsync(key).whenComplete((removed, throwable) -> {
+            if (throwable != null) {
+                log.warn("删除redis {}::{} 失败, 不通知其他实例: {}", region, key, throwable.getMessage());
+                return;
+            }
+            manager.publishInvalidation(region, key);
+        });
+    }
+
+    /**
+     * 只删除本实例的本地缓存, 收到其他实例的失效通知时调用
+     *
+     * @param key key
+     */
+    void evictLocal(final String key) {
+        local.invalidate(key);
+    }
+
+    /**
+     * redis中剩余的过期时间, 让回填的本地缓存与redis同时过期
+     */
+    private Duration remainingTtl(final String key) {
+        final long remaining = remote.remainTimeToLive(key);
+        return remaining > 0 ? Duration.ofMillis(remaining) : ttl;
+    }
+}
@@ -0,0 +1,97 @@
+package org.Simbot.utils.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.Simbot.utils.CaffeineUtil;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author ：ycvk
+ * @description ：近端缓存管理, 按区域创建 {@link NearCache}, 并订阅redis topic,
+ * 收到其他实例的失效通知时删除本地缓存, 使多个bot实例共享redis中的数据且本地缓存不会长期过期不一致
+ * @date ：2026/10/18 21:45
+ */
+@Slf4j
+@Component
+public class NearCacheManager {
+
+    //失效通知topic, 消息格式: 实例id|区域|key
+    private static final String INVALIDATION_TOPIC = "nearCache:invalidation";
+    private static final String SEPARATOR = "|";
+
+    @Resource
+    private CaffeineUtil caffeineUtil;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    //本实例id, 忽略自己发出的失效通知
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Map<String, NearCache<?>> regions = new ConcurrentHashMap<>();
+
+    private RTopic topic;
+
+    @PostConstruct
+    public void subscribe() {
+        topic = redissonClient.getTopic(INVALIDATION_TOPIC, StringCodec.INSTANCE);
+        topic.addListenerAsync(String.class, (channel, message) -> {
+            final String[] parts = message.split("\\|", 3);
+            if (parts.length < 3 || instanceId.equals(parts[0])) {
+                return;
+            }
+            final NearCache<?> cache = regions.get(parts[1]);
+            if (cache != null) {
+                cache.evictLocal(parts[2]);
+            }
+        });
+    }
+
+    /**
+     * 获取或创建缓存区域, 同名区域只创建一次
+     *
+     * @param name 区域名, 需在 CaffeineCacheConfig 中声明同名的本地缓存区域, 同时作为redis map名的后缀
+     * @param ttl  两级缓存的过期时间
+     * @param <V>  缓存值类型
+     * @return 缓存区域
+     */
+    public <V> NearCache<V> region(final String name, final Duration ttl) {
+        return region(name, ttl, null);
+    }
+
+    /**
+     * 获取或创建带后台刷新的缓存区域, 同名区域只创建一次
+     *
+     * @param name              区域名, 需在 CaffeineCacheConfig 中声明同名的本地缓存区域, 同时作为redis map名的后缀
+     * @param ttl               两级缓存的过期时间
+     * @param refreshAfterWrite 写入超过该时间后, 命中时在后台重新加载, 应小于ttl; 为null时不刷新
+     * @param <V>               缓存值类型
+     * @return 缓存区域
+     */
+    @SuppressWarnings("unchecked")
+    public <V> NearCache<V> region(final String name, final Duration ttl, final Duration refreshAfterWrite) {
+        return (NearCache<V>) regions.computeIfAbsent(name, n -> {
+            log.info("创建近端缓存区域 {}, 过期时间 {}, 刷新时间 {}", n, ttl, refreshAfterWrite);
+            return new NearCache<V>(n, ttl, refreshAfterWrite, caffeineUtil.region(n), redissonClient.getMapCache("nearCache:" + n), this);
+        });
+    }
+
+    /**
+     * 发布失效通知
+     *
+     * @param region 区域
+     * @param key    key
+     */
+    void publishInvalidation(final String region, final String key) {
+        topic.publishAsync(instanceId + SEPARATOR + region + SEPARATOR + key);
+    }
+}
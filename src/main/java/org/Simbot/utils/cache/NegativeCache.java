@@ -0,0 +1,104 @@
+package org.Simbot.utils.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author ：ycvk
+ * @description ：空结果缓存, 记录各数据源最近没有查到结果的查询, 在较短的过期时间内重复查询时直接返回空结果,
+ * 不再请求数据库和上游. 各数据源的过期时间由 NegativeCacheConfig 注册
+ * @date ：2026/10/18 22:50
+ */
+@Slf4j
+public final class NegativeCache {
+
+    //未注册过期时间的数据源使用的默认值
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+    private static final Map<String, Duration> TTLS = new ConcurrentHashMap<>();
+
+    //key: 数据源::查询, value: 过期时间(纳秒)
+    private static final Cache<String, Long> CACHE = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfter(new Expiry<String, Long>() {
+                @Override
+                public long expireAfterCreate(@Nonnull final String key, @Nonnull final Long ttlNanos, final long currentTime) {
+                    return ttlNanos;
+                }
+
+                @Override
+                public long expireAfterUpdate(@Nonnull final String key, @Nonnull final Long ttlNanos, final long currentTime, final long currentDuration) {
+                    return ttlNanos;
+                }
+
+                @Override
+                public long expireAfterRead(@Nonnull final String key, @Nonnull final Long ttlNanos, final long currentTime, final long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    private NegativeCache() {
+    }
+
+    /**
+     * 注册数据源的空结果过期时间, 已存在则覆盖
+     *
+     * @param source 数据源
+     * @param ttl    过期时间
+     */
+    public static void register(final String source, final Duration ttl) {
+        TTLS.put(source, ttl);
+        log.info("注册空结果缓存: {} -> {}", source, ttl);
+    }
+
+    /**
+     * 查询最近是否没有结果
+     *
+     * @param source 数据源
+     * @param query  查询内容
+     * @return 过期时间内查询过且没有结果时返回true
+     */
+    public static boolean isMissing(final String source, final String query) {
+        final boolean missing = CACHE.getIfPresent(key(source, query)) != null;
+        if (missing) {
+            log.info("{} 最近没有查到 {} 的结果, 跳过查询", source, query);
+        }
+        return missing;
+    }
+
+    /**
+     * 记录查询没有结果
+     *
+     * @param source 数据源
+     * @param query  查询内容
+     */
+    public static void markMissing(final String source, final String query) {
+        final Duration ttl = TTLS.getOrDefault(source, DEFAULT_TTL);
+        if (ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+        CACHE.put(key(source, query), ttl.toNanos());
+    }
+
+    /**
+     * 清除空结果记录, 如数据已被补充时
+     *
+     * @param source 数据源
+     * @param query  查询内容
+     */
+    public static void clear(final String source, final String query) {
+        CACHE.invalidate(key(source, query));
+    }
+
+    private static String key(final String source, final String query) {
+        return source + "::" + query;
+    }
+}
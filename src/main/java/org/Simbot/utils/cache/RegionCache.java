@@ -0,0 +1,136 @@
+package org.Simbot.utils.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.Simbot.config.caffeine.CacheDataWrapper;
+import org.Simbot.config.caffeine.CacheRegion;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * @author ：ycvk
+ * @description ：一个本地缓存区域的类型化访问入口, 每个区域的key互不冲突, 由 CaffeineUtil#region 获取.
+ * 缓存的对象按原样存取, 命中时不做转换和拷贝; 区域开启copyOnWrite时只在写入时拷贝一次集合
+ * @date ：2026/10/18 22:25
+ */
+public class RegionCache<V> {
+
+    private final CacheRegion region;
+    private final Cache<String, CacheDataWrapper> cache;
+
+    public RegionCache(final CacheRegion region, final Cache<String, CacheDataWrapper> cache) {
+        this.region = region;
+        this.cache = cache;
+    }
+
+    /**
+     * @param key key
+     * @return 缓存值, 未命中时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public V getIfPresent(final String key) {
+        final CacheDataWrapper wrapper = cache.getIfPresent(key);
+        return wrapper == null ? null : (V) wrapper.getData();
+    }
+
+    /**
+     * @param key key
+     * @return 缓存值
+     */
+    public Optional<V> get(final String key) {
+        return Optional.ofNullable(getIfPresent(key));
+    }
+
+    /**
+     * 获取缓存, 未命中时调用加载函数, 同一key的并发加载只执行一次, 加载结果为null时不缓存
+     *
+     * @param key    key
+     * @param loader 加载函数
+     * @return 缓存值
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final String key, final Function<String, V> loader) {
+        final CacheDataWrapper wrapper = cache.get(key, k -> {
+            final V value = loader.apply(k);
+            return value == null ? null : new CacheDataWrapper(prepare(value), -1, null);
+        });
+        return wrapper == null ? null : (V) wrapper.getData();
+    }
+
+    /**
+     * 写入缓存, 使用区域的默认过期时间
+     *
+     * @param key   key
+     * @param value 值
+     */
+    public void put(final String key, final V value) {
+        cache.put(key, new CacheDataWrapper(prepare(value), -1, null));
+    }
+
+    /**
+     * 写入缓存并指定过期时间
+     *
+     * @param key   key
+     * @param value 值
+     * @param ttl   过期时间
+     */
+    public void put(final String key, final V value, final Duration ttl) {
+        cache.put(key, new CacheDataWrapper(prepare(value), ttl.toNanos(), TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * 开启copyOnWrite时将集合拷贝为不可修改的集合, 保留元素顺序和null元素
+     */
+    @SuppressWarnings("unchecked")
+    private V prepare(final V value) {
+        if (!region.isCopyOnWrite()) {
+            return value;
+        }
+        if (value instanceof final List<?> list) {
+            return (V) Collections.unmodifiableList(new ArrayList<>(list));
+        }
+        if (value instanceof final Set<?> set) {
+            return (V) Collections.unmodifiableSet(new LinkedHashSet<>(set));
+        }
+        if (value instanceof final Map<?, ?> map) {
+            return (V) Collections.unmodifiableMap(new LinkedHashMap<>(map));
+        }
+        return value;
+    }
+
+    public void invalidate(final String key) {
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 缓存项的剩余过期时间
+     *
+     * @param key key
+     * @return 未命中或不过期时返回empty
+     */
+    public Optional<Duration> getExpiresAfter(final String key) {
+        return cache.policy().expireVariably().flatMap(policy -> policy.getExpiresAfter(key));
+    }
+
+    /**
+     * @return 区域声明
+     */
+    public CacheRegion getRegion() {
+        return region;
+    }
+
+    /**
+     * @return 当前估算的总字节数
+     */
+    public long getWeightedSize() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,196 @@
+package org.Simbot.utils.cache;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * @author ：ycvk
+ * @description ：两级缓存加载器. 读取顺序为 无锁的本地缓存区域(L1) -> redis(L2) -> 网络,
+ * 只有两级都未命中时才加载: 同一进程内同一个key只有一个线程加载, 其余线程等待其结果(single-flight),
+ * 可选再加一把带租期的redisson分布式锁, 避免多个实例同时请求上游
+ * @date ：2026/10/18 21:05
+ */
+@Slf4j
+public class TieredCacheLoader<R, V> {
+
+    private final String name;
+    private final RegionCache<V> local;
+    private final RMapCache<String, R> remote;
+    private final Duration ttl;
+    private final Function<R, V> decoder;
+    private final Function<String, R> loader;
+    private final RedissonClient lockClient;
+    private final Duration lockWait;
+    private final Duration lockLease;
+
+    //正在加载的key, 同一key的并发请求共用一个结果
+    private final Map<String, CompletableFuture<V>> inflight = new ConcurrentHashMap<>();
+
+    /**
+     * @param name         名称, 用于区分分布式锁
+     * @param local        本地缓存区域
+     * @param ttl          两级缓存的过期时间, 默认1小时
+     * @param remote       redis缓存, 存放加载得到的原始数据
+     * @param decoder      原始数据转换为本地缓存的值, 如解析json
+     * @param loader       两级缓存都未命中时的加载函数, 返回null表示没有数据, 不会缓存
+     * @param lockClient   不为null时加载前获取分布式锁
+     * @param lockWait     获取分布式锁的最长等待时间, 超时后不加锁直接加载, 默认10秒
+     * @param lockLease    分布式锁的租期, 到期自动释放, 默认30秒
+     */
+    @Builder
+    private TieredCacheLoader(final String name, final RegionCache<V> local, final Duration ttl,
+                              final RMapCache<String, R> remote, final Function<R, V> decoder, final Function<String, R> loader,
+                              final RedissonClient lockClient, final Duration lockWait, final Duration lockLease) {
+        this.name = name;
+        this.ttl = ttl == null ? Duration.ofHours(1) : ttl;
+        this.local = local;
+        this.remote = remote;
+        this.decoder = decoder;
+        this.loader = loader;
+        this.lockClient = lockClient;
+        this.lockWait = lockWait == null ? Duration.ofSeconds(10) : lockWait;
+        this.lockLease = lockLease == null ? Duration.ofSeconds(30) : lockLease;
+    }
+
+    /**
+     * 只读取本地缓存, 不加锁
+     *
+     * @param key key
+     * @return 未命中时返回null
+     */
+    public V getIfPresent(final String key) {
+        return local.getIfPresent(key);
+    }
+
+    /**
+     * 依次从本地缓存、redis和加载函数中获取
+     *
+     * @param key key
+     * @return 值, 都没有时返回null
+     */
+    public V get(final String key) {
+        final V cached = local.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        final CompletableFuture<V> existing = inflight.putIfAbsent(key, future);
+        if (existing != null) {
+            //已有线程在加载, 等待其结果; 加载失败时抛出与加载线程相同的异常, 而不是CompletionException
+            try {
+                return existing.join();
+            } catch (final CompletionException e) {
+                if (e.getCause() instanceof final RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof final Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            final V value = load(key);
+            future.complete(value);
+            return value;
+        } catch (final RuntimeException | Error e) {
+            //Error也要通知等待的线程, 否则它们会一直等待
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, future);
+        }
+    }
+
+    /**
+     * 移除两级缓存
+     *
+     * @param key key
+     */
+    public void invalidate(final String key) {
+        local.invalidate(key);
+        if (remote != null) {
+            remote.fastRemoveAsync(key);
+        }
+    }
+
+    private V load(final String key) {
+        final V fromRemote = readRemote(key);
+        if (fromRemote != null) {
+            return fromRemote;
+        }
+        if (lockClient == null) {
+            return loadAndCache(key);
+        }
+        final RLock lock = lockClient.getLock("lock::" + name + "::" + key);
+        boolean locked = false;
+        try {
+            locked = lock.tryLock(lockWait.toMillis(), lockLease.toMillis(), TimeUnit.MILLISECONDS);
+            if (!locked) {
+                log.warn("获取 {} 的分布式锁超时, 不加锁直接加载", key);
+            }
+            //等锁期间其他实例可能已经加载完成
+            final V loaded = readRemote(key);
+            return loaded != null ? loaded : loadAndCache(key);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            //租期到期后锁可能已被自动释放
+            if (locked && lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private V readRemote(final String key) {
+        if (remote == null) {
+            return null;
+        }
+        final R raw = remote.get(key);
+        if (raw == null) {
+            return null;
+        }
+        log.info("从redis中获取 {} 的数据", key);
+        final V value = decoder.apply(raw);
+        if (value != null) {
+            //本地缓存与redis同时过期, 不会在redis过期后继续返回旧值
+            local.put(key, value, remainingTtl(key));
+        }
+        return value;
+    }
+
+    /**
+     * @return redis中该key的剩余过期时间, 取不到时使用完整的过期时间
+     */
+    private Duration remainingTtl(final String key) {
+        final long remaining = remote.remainTimeToLive(key);
+        return remaining > 0 ? Duration.ofMillis(remaining) : ttl;
+    }
+
+    private V loadAndCache(final String key) {
+        final R raw = loader.apply(key);
+        if (raw == null) {
+            return null;
+        }
+        if (remote != null) {
+            remote.fastPutAsync(key, raw, ttl.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        final V value = decoder.apply(raw);
+        if (value != null) {
+            local.put(key, value, ttl);
+        }
+        return value;
+    }
+}
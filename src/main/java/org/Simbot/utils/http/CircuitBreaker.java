@@ -0,0 +1,148 @@
+package org.Simbot.utils.http;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ：ycvk
+ * @description ：单个host的熔断器, 关闭->打开->半开 三种状态.
+ * 关闭时按次数滑动窗口统计失败率和慢请求率, 超过阈值后打开并直接拒绝请求;
+ * 打开一段时间后进入半开, 放行少量探测请求, 全部成功则关闭, 任一失败则重新打开
+ * @date ：2026/10/18 16:12
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final CircuitBreakerPolicy policy;
+    private final long slowCallNanos;
+    //滑动窗口, 每一位记录一次请求是否失败/是否慢请求
+    private final boolean[] failures;
+    private final boolean[] slowCalls;
+    private int windowIndex;
+    private int windowCount;
+    private int failureCount;
+    private int slowCount;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    //半开状态下已放行和已成功的探测请求数
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(final CircuitBreakerPolicy policy) {
+        this.policy = policy;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(policy.getSlowCallDurationMs());
+        final int size = Math.max(1, policy.getWindowSize());
+        this.failures = new boolean[size];
+        this.slowCalls = new boolean[size];
+    }
+
+    /**
+     * 请求发出前调用, 判断是否允许放行
+     *
+     * @return 允许放行时返回true, 放行后必须调用 {@link #onResult} 或 {@link #onIgnored}
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < TimeUnit.MILLISECONDS.toNanos(policy.getOpenDurationMs())) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits >= Math.max(1, policy.getHalfOpenCalls())) {
+                return false;
+            }
+            halfOpenPermits++;
+        }
+        return true;
+    }
+
+    /**
+     * 记录请求结果
+     *
+     * @param failed        是否失败(异常或5xx)
+     * @param durationNanos 请求耗时
+     */
+    public synchronized void onResult(final boolean failed, final long durationNanos) {
+        final boolean slow = durationNanos >= slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                transitionTo(State.OPEN);
+            } else if (++halfOpenSuccesses >= Math.max(1, policy.getHalfOpenCalls())) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        record(failed, slow);
+        if (windowCount >= Math.max(1, policy.getMinimumCalls())
+                && (failureCount * 100 >= policy.getFailureRateThreshold() * windowCount
+                || slowCount * 100 >= policy.getSlowCallRateThreshold() * windowCount)) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * 请求被取消等不计入统计的情况, 归还半开状态下的探测许可
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+        }
+    }
+
+    private void record(final boolean failed, final boolean slow) {
+        if (windowCount == failures.length) {
+            //窗口已满, 移除最早的一条记录
+            failureCount -= failures[windowIndex] ? 1 : 0;
+            slowCount -= slowCalls[windowIndex] ? 1 : 0;
+        } else {
+            windowCount++;
+        }
+        failures[windowIndex] = failed;
+        slowCalls[windowIndex] = slow;
+        failureCount += failed ? 1 : 0;
+        slowCount += slow ? 1 : 0;
+        windowIndex = (windowIndex + 1) % failures.length;
+    }
+
+    private void transitionTo(final State newState) {
+        log.warn("host {} 熔断器状态变更: {} -> {} (窗口内失败 {}/{}, 慢请求 {}/{})",
+                policy.getHost(), state, newState, failureCount, windowCount, slowCount, windowCount);
+        state = newState;
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+        if (newState == State.OPEN) {
+            openedAtNanos = System.nanoTime();
+        }
+        if (newState != State.HALF_OPEN) {
+            //打开和关闭时都清空窗口, 关闭后重新统计
+            windowIndex = 0;
+            windowCount = 0;
+            failureCount = 0;
+            slowCount = 0;
+        }
+    }
+
+    /**
+     * @return 当前状态, 打开状态超时后视为半开
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= TimeUnit.MILLISECONDS.toNanos(policy.getOpenDurationMs())) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public CircuitBreakerPolicy getPolicy() {
+        return policy;
+    }
+}
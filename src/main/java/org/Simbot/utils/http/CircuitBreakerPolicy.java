@@ -0,0 +1,28 @@
+package org.Simbot.utils.http;
+
+import lombok.Data;
+
+/**
+ * @author ：ycvk
+ * @description ：单个上游host的熔断策略
+ * @date ：2026/10/18 16:05
+ */
+@Data
+public class CircuitBreakerPolicy {
+    //host, 同时匹配其子域名
+    private String host;
+    //统计窗口内的请求数(按次数滑动)
+    private int windowSize = 20;
+    //窗口内至少有多少次请求才开始计算失败率
+    private int minimumCalls = 10;
+    //失败率阈值(百分比), 达到后熔断
+    private int failureRateThreshold = 50;
+    //慢请求阈值(毫秒)
+    private long slowCallDurationMs = 10000;
+    //慢请求率阈值(百分比), 达到后熔断
+    private int slowCallRateThreshold = 80;
+    //熔断后保持打开的时间(毫秒), 之后进入半开状态
+    private long openDurationMs = 30000;
+    //半开状态下允许通过的探测请求数
+    private int halfOpenCalls = 2;
+}
@@ -0,0 +1,82 @@
+package org.Simbot.utils.http;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * @author ：ycvk
+ * @description ：按host注册的熔断器, 由 AsyncHttpClientUtil 在发出请求前查询, 爬虫可据此快速降级
+ * @date ：2026/10/18 16:25
+ */
+@Slf4j
+public final class CircuitBreakerRegistry {
+
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    private CircuitBreakerRegistry() {
+    }
+
+    /**
+     * 注册host的熔断策略, 已存在则覆盖
+     *
+     * @param policy 熔断策略
+     */
+    public static void register(final CircuitBreakerPolicy policy) {
+        BREAKERS.put(policy.getHost().toLowerCase(Locale.ROOT), new CircuitBreaker(policy));
+        log.info("注册host熔断策略: {}", policy);
+    }
+
+    /**
+     * 获取host对应的熔断器, 依次匹配host及其上级域名
+     *
+     * @param host 请求的host
+     * @return 熔断器, 未配置时返回null
+     */
+    public static CircuitBreaker get(final String host) {
+        return HostThrottleRegistry.matchHost(BREAKERS, host);
+    }
+
+    /**
+     * host的熔断器是否处于打开状态, 打开时请求会被直接拒绝
+     *
+     * @param host host
+     * @return 未配置熔断器时返回false
+     */
+    public static boolean isOpen(final String host) {
+        final CircuitBreaker breaker = get(host);
+        return breaker != null && breaker.getState() == CircuitBreaker.State.OPEN;
+    }
+
+    /**
+     * 带降级的调用: host已熔断时直接返回降级结果, 调用失败时也返回降级结果
+     *
+     * @param host     上游host
+     * @param call     正常调用
+     * @param fallback 降级调用
+     * @return 调用结果
+     */
+    public static <T> T callWithFallback(final String host, final Supplier<T> call, final Supplier<T> fallback) {
+        if (isOpen(host)) {
+            log.info("host {} 已熔断, 使用降级结果", host);
+            return fallback.get();
+        }
+        try {
+            return call.get();
+        } catch (final Exception e) {
+            log.warn("请求 {} 失败, 使用降级结果: {}", host, e.getMessage());
+            return fallback.get();
+        }
+    }
+
+    /**
+     * @return 所有已注册的熔断器, 用于查看状态
+     */
+    public static Map<String, CircuitBreaker> getBreakers() {
+        return Collections.unmodifiableMap(BREAKERS);
+    }
+}
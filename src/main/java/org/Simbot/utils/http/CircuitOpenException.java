@@ -0,0 +1,15 @@
+package org.Simbot.utils.http;
+
+import java.io.IOException;
+
+/**
+ * @author ：ycvk
+ * @description ：host熔断器处于打开状态, 请求未发出直接失败
+ * @date ：2026/10/18 16:20
+ */
+public class CircuitOpenException extends IOException {
+
+    public CircuitOpenException(final String host) {
+        super("host " + host + " 已熔断, 请求被拒绝");
+    }
+}
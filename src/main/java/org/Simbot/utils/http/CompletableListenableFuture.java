@@ -0,0 +1,73 @@
+package org.Simbot.utils.http;
+
+import org.asynchttpclient.ListenableFuture;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.*;
+
+/**
+ * @author ：ycvk
+ * @description ：以CompletableFuture实现的ListenableFuture, 用于请求尚未真正发出(如排队限流)时先返回给调用方
+ * @date ：2026/10/18 14:31
+ */
+public class CompletableListenableFuture<V> implements ListenableFuture<V> {
+
+    private final CompletableFuture<V> delegate;
+
+    public CompletableListenableFuture(final CompletableFuture<V> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void done() {
+    }
+
+    @Override
+    public void abort(final Throwable t) {
+        delegate.completeExceptionally(t);
+    }
+
+    @Override
+    public void touch() {
+    }
+
+    @Override
+    public ListenableFuture<V> addListener(final Runnable listener, final Executor exec) {
+        if (exec == null) {
+            delegate.whenComplete((v, t) -> listener.run());
+        } else {
+            delegate.whenCompleteAsync((v, t) -> listener.run(), exec);
+        }
+        return this;
+    }
+
+    @Override
+    public CompletableFuture<V> toCompletableFuture() {
+        return delegate;
+    }
+
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        return delegate.cancel(mayInterruptIfRunning);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return delegate.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return delegate.isDone();
+    }
+
+    @Override
+    public V get() throws InterruptedException, ExecutionException {
+        return delegate.get();
+    }
+
+    @Override
+    public V get(final long timeout, @NotNull final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return delegate.get(timeout, unit);
+    }
+}
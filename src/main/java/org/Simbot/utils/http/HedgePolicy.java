@@ -0,0 +1,47 @@
+package org.Simbot.utils.http;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * @author ：ycvk
+ * @description ：对冲请求策略, 首个请求在host的历史分位耗时内未响应时, 再发出一个相同请求, 取先完成者
+ * @date ：2026/10/18 17:10
+ */
+@Getter
+@Builder(toBuilder = true)
+public class HedgePolicy {
+
+    //默认策略: 在p95耗时后发出对冲请求
+    public static final HedgePolicy DEFAULT = HedgePolicy.builder().build();
+
+    //触发对冲的耗时分位
+    @Builder.Default
+    private final double percentile = 0.95;
+    //计算分位所需的最少样本数, 不足时使用defaultDelay
+    @Builder.Default
+    private final int minSamples = 20;
+    //样本不足时的对冲延迟
+    @Builder.Default
+    private final Duration defaultDelay = Duration.ofSeconds(1);
+    //对冲延迟下限, 避免过早对冲
+    @Builder.Default
+    private final Duration minDelay = Duration.ofMillis(50);
+    //对冲延迟上限
+    @Builder.Default
+    private final Duration maxDelay = Duration.ofSeconds(5);
+
+    /**
+     * 计算对冲延迟
+     *
+     * @param tracker host的耗时统计
+     * @return 对冲延迟毫秒数
+     */
+    public long hedgeDelayMillis(final LatencyTracker tracker) {
+        final long observed = tracker.percentile(percentile, minSamples);
+        final long delay = observed < 0 ? defaultDelay.toMillis() : observed;
+        return Math.min(maxDelay.toMillis(), Math.max(minDelay.toMillis(), delay));
+    }
+}
@@ -0,0 +1,20 @@
+package org.Simbot.utils.http;
+
+import lombok.Data;
+
+/**
+ * @author ：ycvk
+ * @description ：单个上游host的限流策略
+ * @date ：2026/10/18 14:05
+ */
+@Data
+public class HostPolicy {
+    //host, 同时匹配其子域名, 如 javbus.com 匹配 www.javbus.com
+    private String host;
+    //最大并发请求数, 小于等于0表示不限制
+    private int maxConcurrent;
+    //每秒允许发出的请求数, 小于等于0表示不限制
+    private double permitsPerSecond;
+    //令牌桶容量, 即允许的突发请求数, 最小为1
+    private int burst = 1;
+}
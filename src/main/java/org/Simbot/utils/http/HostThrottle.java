@@ -0,0 +1,124 @@
+package org.Simbot.utils.http;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ：ycvk
+ * @description ：单个host的并发数+令牌桶限流器, 超出限制的请求排队等待而不是直接失败, 不阻塞任何线程
+ * @date ：2026/10/18 14:12
+ */
+public class HostThrottle {
+
+    private final HostPolicy policy;
+    private final int burst;
+    //等待许可的任务
+    private final Deque<Runnable> waiting = new ArrayDeque<>();
+    private int active;
+    private double tokens;
+    private long lastRefillNanos;
+    //是否已安排了令牌补充后的排队处理
+    private boolean drainScheduled;
+
+    public HostThrottle(final HostPolicy policy) {
+        this.policy = policy;
+        this.burst = Math.max(1, policy.getBurst());
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 提交任务, 获得许可后在当前线程或释放许可的线程中执行. 任务执行完毕后必须调用 {@link #release()}
+     *
+     * @param task 任务
+     */
+    public void submit(final Runnable task) {
+        final List<Runnable> ready;
+        synchronized (this) {
+            waiting.addLast(task);
+            ready = pollReady();
+        }
+        ready.forEach(Runnable::run);
+    }
+
+    /**
+     * 释放一个并发许可, 并处理排队中的任务
+     */
+    public void release() {
+        final List<Runnable> ready;
+        synchronized (this) {
+            active--;
+            ready = pollReady();
+        }
+        ready.forEach(Runnable::run);
+    }
+
+    private void drainLater() {
+        final List<Runnable> ready;
+        synchronized (this) {
+            drainScheduled = false;
+            ready = pollReady();
+        }
+        ready.forEach(Runnable::run);
+    }
+
+    /**
+     * 取出所有当前可以执行的任务, 需持有锁调用
+     *
+     * @return 可执行的任务
+     */
+    private List<Runnable> pollReady() {
+        refill();
+        List<Runnable> ready = null;
+        while (!waiting.isEmpty() && hasConcurrency() && tokens >= 1) {
+            tokens -= 1;
+            active++;
+            if (ready == null) {
+                ready = new ArrayList<>();
+            }
+            ready.add(waiting.pollFirst());
+        }
+        //并发数足够但令牌不足时, 等令牌补充后再处理队列; 并发数不足时由release触发
+        if (!waiting.isEmpty() && hasConcurrency() && !drainScheduled) {
+            final long delayNanos = (long) ((1 - tokens) / policy.getPermitsPerSecond() * TimeUnit.SECONDS.toNanos(1));
+            drainScheduled = true;
+            HostThrottleRegistry.scheduler().schedule(this::drainLater, Math.max(delayNanos, 1), TimeUnit.NANOSECONDS);
+        }
+        return ready == null ? List.of() : ready;
+    }
+
+    private void refill() {
+        if (policy.getPermitsPerSecond() <= 0) {
+            tokens = burst;
+            return;
+        }
+        final long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1) * policy.getPermitsPerSecond());
+        lastRefillNanos = now;
+    }
+
+    private boolean hasConcurrency() {
+        return policy.getMaxConcurrent() <= 0 || active < policy.getMaxConcurrent();
+    }
+
+    public HostPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return 正在进行中的请求数
+     */
+    public synchronized int getActive() {
+        return active;
+    }
+
+    /**
+     * @return 排队等待中的请求数
+     */
+    public synchronized int getQueued() {
+        return waiting.size();
+    }
+}
@@ -0,0 +1,90 @@
+package org.Simbot.utils.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.Simbot.config.threadpool.CustomThreadFactory;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * @author ：ycvk
+ * @description ：按host注册的限流器, 由 AsyncHttpClientUtil 在发出请求前查询
+ * @date ：2026/10/18 14:20
+ */
+@Slf4j
+public final class HostThrottleRegistry {
+
+    private static final Map<String, HostThrottle> THROTTLES = new ConcurrentHashMap<>();
+
+    //令牌补充后唤醒排队任务的调度线程, 只做调度不执行请求
+    private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, new CustomThreadFactory("hostThrottle", Thread.NORM_PRIORITY));
+
+    private HostThrottleRegistry() {
+    }
+
+    /**
+     * 注册host的限流策略, 已存在则覆盖
+     *
+     * @param policy 限流策略
+     */
+    public static void register(final HostPolicy policy) {
+        THROTTLES.put(policy.getHost().toLowerCase(Locale.ROOT), new HostThrottle(policy));
+        log.info("注册host限流策略: {}", policy);
+    }
+
+    /**
+     * 获取host对应的限流器, 依次匹配host及其上级域名
+     *
+     * @param host 请求的host
+     * @return 限流器, 未配置时返回null
+     */
+    public static HostThrottle get(final String host) {
+        return matchHost(THROTTLES, host);
+    }
+
+    /**
+     * 按host查找配置, 依次匹配host及其上级域名, 如 www.javbus.com -> javbus.com -> com
+     *
+     * @param registry 以小写host为key的注册表
+     * @param host     请求的host
+     * @return 匹配到的值, 未配置时返回null
+     */
+    static <T> T matchHost(final Map<String, T> registry, final String host) {
+        if (host == null || registry.isEmpty()) {
+            return null;
+        }
+        String candidate = host.toLowerCase(Locale.ROOT);
+        while (true) {
+            final T value = registry.get(candidate);
+            if (value != null) {
+                return value;
+            }
+            final int dot = candidate.indexOf('.');
+            if (dot < 0) {
+                return null;
+            }
+            candidate = candidate.substring(dot + 1);
+        }
+    }
+
+    /**
+     * @return 所有已注册的限流器, 用于查看排队和并发情况
+     */
+    public static Map<String, HostThrottle> getThrottles() {
+        return Collections.unmodifiableMap(THROTTLES);
+    }
+
+    static ScheduledExecutorService scheduler() {
+        return SCHEDULER;
+    }
+
+    public static void shutdown() {
+        if (!SCHEDULER.isShutdown()) {
+            SCHEDULER.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.Simbot.utils.http;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * @author ：ycvk
+ * @description ：响应状态码表示失败, 保留状态码, 便于调用方区分"确实不存在"(404)和上游异常
+ * @date ：2026/10/18 23:40
+ */
+@Getter
+public class HttpStatusException extends IOException {
+
+    private final int statusCode;
+
+    public HttpStatusException(final int statusCode, final String url) {
+        super("HTTP error fetching URL, status=" + statusCode + ", url=" + url);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * 沿异常链查找状态码
+     *
+     * @param throwable 异常, 可能被CompletionException/ExecutionException包装
+     * @return 状态码, 异常链中没有HttpStatusException时返回-1
+     */
+    public static int statusOf(final Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof final HttpStatusException e) {
+                return e.getStatusCode();
+            }
+        }
+        return -1;
+    }
+}
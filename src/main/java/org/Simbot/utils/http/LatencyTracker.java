@@ -0,0 +1,65 @@
+package org.Simbot.utils.http;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author ：ycvk
+ * @description ：按host统计最近请求的耗时, 用于计算对冲请求的触发延迟
+ * @date ：2026/10/18 17:02
+ */
+public class LatencyTracker {
+
+    private static final Map<String, LatencyTracker> TRACKERS = new ConcurrentHashMap<>();
+    //每个host保留的最近样本数
+    private static final int SAMPLE_SIZE = 128;
+
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private int index;
+    private int count;
+
+    /**
+     * 获取host对应的耗时统计, 不存在则创建
+     *
+     * @param host host
+     * @return 耗时统计
+     */
+    public static LatencyTracker forHost(final String host) {
+        return TRACKERS.computeIfAbsent(host.toLowerCase(Locale.ROOT), h -> new LatencyTracker());
+    }
+
+    /**
+     * 记录一次成功请求的耗时
+     *
+     * @param millis 耗时毫秒数
+     */
+    public synchronized void record(final long millis) {
+        samples[index] = millis;
+        index = (index + 1) % SAMPLE_SIZE;
+        if (count < SAMPLE_SIZE) {
+            count++;
+        }
+    }
+
+    /**
+     * 计算最近样本的分位耗时
+     *
+     * @param percentile 分位, 如0.95
+     * @param minSamples 最少样本数, 不足时返回-1
+     * @return 分位耗时毫秒数
+     */
+    public long percentile(final double percentile, final int minSamples) {
+        final long[] copy;
+        synchronized (this) {
+            if (count < Math.max(1, minSamples)) {
+                return -1;
+            }
+            copy = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(copy);
+        final int rank = (int) Math.ceil(percentile * copy.length) - 1;
+        return copy[Math.min(copy.length - 1, Math.max(0, rank))];
+    }
+}
@@ -0,0 +1,78 @@
+package org.Simbot.utils.http;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author ：ycvk
+ * @description ：全局重试预算, 防止上游故障时重试放大流量.
+ * 每个原始请求存入ratio个令牌, 每次重试消耗1个令牌, 另按minRetriesPerSecond保底补充, 令牌不足时放弃重试
+ * @date ：2026/10/18 15:26
+ */
+public class RetryBudget {
+
+    //每个原始请求允许的重试比例
+    private final double ratio;
+    //每秒保底的重试次数, 保证低流量时也能重试
+    private final double minRetriesPerSecond;
+    //令牌上限
+    private final double maxBalance;
+    private double balance;
+    private long lastRefillNanos;
+
+    private final LongAdder grantedRetries = new LongAdder();
+    private final LongAdder deniedRetries = new LongAdder();
+
+    public RetryBudget(final double ratio, final double minRetriesPerSecond, final double maxBalance) {
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.maxBalance = maxBalance;
+        this.balance = maxBalance;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 记录一次原始请求, 存入重试令牌
+     */
+    public synchronized void recordRequest() {
+        refill();
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    /**
+     * 尝试获取一次重试的许可
+     *
+     * @return 预算充足时返回true并扣除令牌
+     */
+    public boolean tryAcquireRetry() {
+        final boolean granted;
+        synchronized (this) {
+            refill();
+            granted = balance >= 1;
+            if (granted) {
+                balance -= 1;
+            }
+        }
+        (granted ? grantedRetries : deniedRetries).increment();
+        return granted;
+    }
+
+    private void refill() {
+        final long now = System.nanoTime();
+        balance = Math.min(maxBalance, balance + (now - lastRefillNanos) / 1e9 * minRetriesPerSecond);
+        lastRefillNanos = now;
+    }
+
+    /**
+     * @return 已放行的重试次数
+     */
+    public long getGrantedRetries() {
+        return grantedRetries.sum();
+    }
+
+    /**
+     * @return 因预算不足被拒绝的重试次数
+     */
+    public long getDeniedRetries() {
+        return deniedRetries.sum();
+    }
+}
@@ -0,0 +1,127 @@
+package org.Simbot.utils.http;
+
+import cn.hutool.core.util.NumberUtil;
+import cn.hutool.core.util.StrUtil;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author ：ycvk
+ * @description ：http重试策略, 指数退避+随机抖动, 限制最大尝试次数和总耗时, 支持Retry-After
+ * @date ：2026/10/18 15:20
+ */
+@Getter
+@Builder(toBuilder = true)
+public class RetryPolicy {
+
+    //默认策略: 最多3次尝试, 500ms起步翻倍退避, 总耗时不超过30s
+    public static final RetryPolicy DEFAULT = RetryPolicy.builder().build();
+    //不重试
+    public static final RetryPolicy NONE = RetryPolicy.builder().maxAttempts(1).build();
+    //非幂等请求(如POST)的策略: 只在请求确定未被处理时重试, 即连接阶段失败或服务端明确拒绝(429/503)
+    public static final RetryPolicy NON_IDEMPOTENT = RetryPolicy.builder()
+            .retryableStatuses(Set.of(429, 503))
+            .connectFailuresOnly(true)
+            .build();
+
+    //最大尝试次数, 包含首次请求
+    @Builder.Default
+    private final int maxAttempts = 3;
+    //首次重试的退避时间
+    @Builder.Default
+    private final Duration initialBackoff = Duration.ofMillis(500);
+    //单次退避的上限
+    @Builder.Default
+    private final Duration maxBackoff = Duration.ofSeconds(10);
+    //退避倍数
+    @Builder.Default
+    private final double multiplier = 2.0;
+    //抖动比例 0~1, 实际退避时间在 [退避*(1-jitter), 退避] 之间随机
+    @Builder.Default
+    private final double jitter = 0.5;
+    //从首次请求开始允许的最大总耗时, 超过后不再重试
+    @Builder.Default
+    private final Duration maxElapsed = Duration.ofSeconds(30);
+    //可重试的响应状态码
+    @Builder.Default
+    private final Set<Integer> retryableStatuses = Set.of(408, 429, 500, 502, 503, 504);
+    //是否遵循响应的Retry-After头
+    @Builder.Default
+    private final boolean respectRetryAfter = true;
+    //是否只对连接阶段的异常重试(连接失败、连接超时、域名解析失败), 读超时和请求超时时请求可能已被服务端处理, 不再重试
+    @Builder.Default
+    private final boolean connectFailuresOnly = false;
+
+    /**
+     * @param statusCode 响应状态码
+     * @return 该状态码是否可重试
+     */
+    public boolean isRetryableStatus(final int statusCode) {
+        return retryableStatuses.contains(statusCode);
+    }
+
+    /**
+     * @param cause 请求异常
+     * @return 该异常是否可重试
+     */
+    public boolean isRetryableException(final Throwable cause) {
+        if (!connectFailuresOnly) {
+            return true;
+        }
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException || t instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 计算第attempt次请求失败后的退避时间
+     *
+     * @param attempt    已完成的尝试次数, 从1开始
+     * @param retryAfter 响应的Retry-After头, 可为空
+     * @return 退避毫秒数
+     */
+    public long backoffMillis(final int attempt, final String retryAfter) {
+        if (respectRetryAfter) {
+            final long serverDelay = parseRetryAfter(retryAfter);
+            if (serverDelay >= 0) {
+                return serverDelay;
+            }
+        }
+        final double base = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() * Math.pow(multiplier, attempt - 1));
+        final double spread = base * Math.min(1, Math.max(0, jitter));
+        return (long) (base - spread + ThreadLocalRandom.current().nextDouble() * spread);
+    }
+
+    /**
+     * 解析Retry-After, 支持秒数和HTTP日期两种格式
+     *
+     * @param retryAfter Retry-After头
+     * @return 毫秒数, 无法解析时返回-1
+     */
+    private static long parseRetryAfter(final String retryAfter) {
+        if (StrUtil.isBlank(retryAfter)) {
+            return -1;
+        }
+        final String value = retryAfter.trim();
+        if (NumberUtil.isLong(value)) {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        }
+        try {
+            final ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, date.toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (final Exception e) {
+            return -1;
+        }
+    }
+}
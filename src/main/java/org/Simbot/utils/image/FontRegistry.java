@@ -0,0 +1,117 @@
+package org.Simbot.utils.image;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author ：ycvk
+ * @description ：字体注册表, 字体文件只解析一次, 按字号派生的字体及其度量也只创建一次
+ * @date ：2026/10/18 19:55
+ */
+@Slf4j
+public final class FontRegistry {
+
+    //与文生图渲染时一致的LCD抗锯齿+小数宽度度量上下文, 不可变, 可全局共享; 绘制时需设置相同的RenderingHints
+    public static final FontRenderContext RENDER_CONTEXT = new FontRenderContext(null,
+            RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+    //计算行度量时使用的样例文本, 同时包含拉丁字母的上下伸部和中文
+    private static final String METRICS_SAMPLE = "Agjy国";
+
+    //字体文件路径 -> 解析后的基础字体
+    private static final Map<String, Font> BASE_FONTS = new ConcurrentHashMap<>();
+    //字体文件路径+字号 -> 派生字体及度量
+    private static final Map<String, FontEntry> FONTS = new ConcurrentHashMap<>();
+
+    private FontRegistry() {
+    }
+
+    /**
+     * 获取指定字体文件和字号的字体及度量, 首次调用时加载
+     *
+     * @param fontPath 字体路径
+     * @param fontSize 字体大小
+     * @return 字体及度量
+     */
+    public static FontEntry get(final String fontPath, final float fontSize) {
+        return FONTS.computeIfAbsent(fontPath + "@" + fontSize, key -> {
+            final Font font = BASE_FONTS.computeIfAbsent(fontPath, FontRegistry::createFont).deriveFont(fontSize);
+            //与分行和绘制使用同一个度量上下文, 行高和分行宽度与实际绘制的字形一致
+            final LineMetrics metrics = font.getLineMetrics(METRICS_SAMPLE, RENDER_CONTEXT);
+            return new FontEntry(font, metrics.getAscent(), (int) Math.ceil(metrics.getAscent() + metrics.getDescent() + metrics.getLeading()));
+        });
+    }
+
+    @SneakyThrows
+    private static Font createFont(final String fontPath) {
+        log.info("加载字体文件 {}", fontPath);
+        return Font.createFont(Font.TRUETYPE_FONT, new File(fontPath));
+    }
+
+    /**
+     * 派生字体及其在 {@link #RENDER_CONTEXT} 下的度量. 字符宽度首次用到时计算并缓存, 之后的分行直接复用, 不再逐次构建TextLayout
+     */
+    public static final class FontEntry {
+
+        private final Font font;
+        private final float ascent;
+        private final int lineHeight;
+        //基本多文种平面字符的宽度, NaN表示尚未计算; 并发计算得到的是相同的值, 无需加锁
+        private final float[] bmpAdvances = new float[Character.MAX_VALUE + 1];
+        //其余字符(如emoji)的宽度
+        private final Map<Integer, Float> supplementaryAdvances = new ConcurrentHashMap<>();
+
+        /**
+         * @param font       字体
+         * @param ascent     基线以上的高度
+         * @param lineHeight 行高, 包含行距
+         */
+        FontEntry(final Font font, final float ascent, final int lineHeight) {
+            this.font = font;
+            this.ascent = ascent;
+            this.lineHeight = lineHeight;
+            Arrays.fill(bmpAdvances, Float.NaN);
+        }
+
+        public Font font() {
+            return font;
+        }
+
+        public float ascent() {
+            return ascent;
+        }
+
+        public int lineHeight() {
+            return lineHeight;
+        }
+
+        /**
+         * 字符的绘制宽度
+         *
+         * @param codePoint 字符
+         * @return 宽度
+         */
+        public float advance(final int codePoint) {
+            if (codePoint <= Character.MAX_VALUE) {
+                float advance = bmpAdvances[codePoint];
+                if (Float.isNaN(advance)) {
+                    advance = measure(codePoint);
+                    bmpAdvances[codePoint] = advance;
+                }
+                return advance;
+            }
+            return supplementaryAdvances.computeIfAbsent(codePoint, this::measure);
+        }
+
+        private float measure(final int codePoint) {
+            return (float) font.getStringBounds(new String(Character.toChars(codePoint)), RENDER_CONTEXT).getWidth();
+        }
+    }
+}
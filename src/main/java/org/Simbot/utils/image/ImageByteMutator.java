@@ -0,0 +1,138 @@
+package org.Simbot.utils.image;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+/**
+ * @author ：ycvk
+ * @description ：在不解码像素的情况下修改图片字节, 插入随机的注释块使文件hash变化, 防止图片被qq去重.
+ * 支持PNG(tEXt块)、JPEG(COM段)、GIF(注释扩展块), 其他格式返回null由调用方退回像素修改
+ * @date ：2026/10/18 18:02
+ */
+public final class ImageByteMutator {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    //PNG签名8字节 + IHDR块(长度4 + 类型4 + 数据13 + CRC4)
+    private static final int PNG_IHDR_END = 8 + 25;
+    //GIF头6字节 + 逻辑屏幕描述符7字节
+    private static final int GIF_HEADER_END = 6 + 7;
+
+    private ImageByteMutator() {
+    }
+
+    /**
+     * 插入随机注释块
+     *
+     * @param bytes 原始图片字节
+     * @return 修改后的图片字节, 不支持的格式返回null
+     */
+    public static byte[] mutate(final byte[] bytes) {
+        if (bytes == null || bytes.length < 16) {
+            return null;
+        }
+        final byte[] comment = randomComment();
+        if (isPng(bytes)) {
+            return insertPngText(bytes, comment);
+        }
+        if ((bytes[0] & 0xFF) == 0xFF && (bytes[1] & 0xFF) == 0xD8) {
+            return insertJpegComment(bytes, comment);
+        }
+        if (bytes[0] == 'G' && bytes[1] == 'I' && bytes[2] == 'F') {
+            return insertGifComment(bytes, comment);
+        }
+        return null;
+    }
+
+    private static byte[] randomComment() {
+        final byte[] random = new byte[8];
+        ThreadLocalRandom.current().nextBytes(random);
+        return HexFormat.of().formatHex(random).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static boolean isPng(final byte[] bytes) {
+        for (int i = 0; i < PNG_SIGNATURE.length; i++) {
+            if (bytes[i] != PNG_SIGNATURE[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 在IHDR块之后插入tEXt块, 内容为 Comment\0随机字符串
+     */
+    private static byte[] insertPngText(final byte[] bytes, final byte[] comment) {
+        if (bytes.length <= PNG_IHDR_END || bytes[12] != 'I' || bytes[13] != 'H' || bytes[14] != 'D' || bytes[15] != 'R') {
+            return null;
+        }
+        final byte[] keyword = "Comment".getBytes(StandardCharsets.US_ASCII);
+        final int dataLength = keyword.length + 1 + comment.length;
+        final byte[] chunk = new byte[4 + 4 + dataLength + 4];
+        writeInt(chunk, 0, dataLength);
+        chunk[4] = 't';
+        chunk[5] = 'E';
+        chunk[6] = 'X';
+        chunk[7] = 't';
+        System.arraycopy(keyword, 0, chunk, 8, keyword.length);
+        System.arraycopy(comment, 0, chunk, 8 + keyword.length + 1, comment.length);
+        //CRC覆盖块类型和数据
+        final CRC32 crc = new CRC32();
+        crc.update(chunk, 4, 4 + dataLength);
+        writeInt(chunk, 8 + dataLength, (int) crc.getValue());
+        return insert(bytes, PNG_IHDR_END, chunk);
+    }
+
+    /**
+     * 在SOI标记之后插入COM段
+     */
+    private static byte[] insertJpegComment(final byte[] bytes, final byte[] comment) {
+        final int length = 2 + comment.length;
+        final byte[] segment = new byte[2 + length];
+        segment[0] = (byte) 0xFF;
+        segment[1] = (byte) 0xFE;
+        segment[2] = (byte) (length >>> 8);
+        segment[3] = (byte) length;
+        System.arraycopy(comment, 0, segment, 4, comment.length);
+        return insert(bytes, 2, segment);
+    }
+
+    /**
+     * 在全局颜色表之后插入注释扩展块, GIF87a不支持扩展块, 同时将版本改为89a
+     */
+    private static byte[] insertGifComment(final byte[] bytes, final byte[] comment) {
+        final int flags = bytes[10] & 0xFF;
+        int offset = GIF_HEADER_END;
+        if ((flags & 0x80) != 0) {
+            offset += 3 * (1 << ((flags & 0x07) + 1));
+        }
+        if (offset >= bytes.length) {
+            return null;
+        }
+        //扩展标识 + 注释标签 + 子块长度 + 数据 + 块结束符
+        final byte[] extension = new byte[3 + comment.length + 1];
+        extension[0] = 0x21;
+        extension[1] = (byte) 0xFE;
+        extension[2] = (byte) comment.length;
+        System.arraycopy(comment, 0, extension, 3, comment.length);
+        final byte[] result = insert(bytes, offset, extension);
+        result[4] = '9';
+        return result;
+    }
+
+    private static byte[] insert(final byte[] bytes, final int offset, final byte[] content) {
+        final byte[] result = new byte[bytes.length + content.length];
+        System.arraycopy(bytes, 0, result, 0, offset);
+        System.arraycopy(content, 0, result, offset, content.length);
+        System.arraycopy(bytes, offset, result, offset + content.length, bytes.length - offset);
+        return result;
+    }
+
+    private static void writeInt(final byte[] bytes, final int offset, final int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,217 @@
+package org.Simbot.utils.image;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.Simbot.config.threadpool.IOThreadPool;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author ：ycvk
+ * @description ：按内容寻址的图片磁盘缓存, 文件名为 url+请求头+处理参数 的sha256, 存放处理后的图片字节.
+ * 内存中维护按访问顺序排列的索引, 总大小超出上限时淘汰最久未访问的文件, 写入超过最长保存时间的文件视为未命中,
+ * 读取时使用内存映射. 只应缓存地址不变则内容不变的图片, 由调用方显式选择是否使用
+ * @date ：2026/10/18 19:20
+ */
+@Slf4j
+public final class ImageDiskCache {
+
+    //缓存目录
+    private static final Path CACHE_DIR = Paths.get("cache", "imageCache");
+    //缓存总大小上限 512MB
+    private static final long MAX_TOTAL_BYTES = 512L * 1024 * 1024;
+    //单个文件的最长保存时间, 超过后重新下载, 防止上游替换了同一地址的图片后一直返回旧图
+    private static final long MAX_AGE_MILLIS = Duration.ofDays(7).toMillis();
+
+    //文件名 -> 文件大小和写入时间, accessOrder=true, 迭代顺序即最久未访问在前
+    private static final LinkedHashMap<String, Entry> INDEX = new LinkedHashMap<>(256, 0.75f, true);
+    private static long totalBytes;
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    static {
+        loadIndex();
+    }
+
+    private ImageDiskCache() {
+    }
+
+    /**
+     * 在io线程池中读取缓存, 不阻塞调用线程
+     *
+     * @param key url+请求头+处理参数
+     * @return 图片字节的future, 未命中时结果为null
+     */
+    public static CompletableFuture<byte[]> getAsync(final String key) {
+        return CompletableFuture.supplyAsync(() -> get(key), IOThreadPool.executor());
+    }
+
+    /**
+     * 读取缓存, 会阻塞读取文件, 异步场景使用 {@link #getAsync}
+     *
+     * @param key url+请求头+处理参数
+     * @return 图片字节, 未命中或已超过最长保存时间时返回null
+     */
+    public static byte[] get(final String key) {
+        final String name = fileName(key);
+        final Entry entry;
+        synchronized (INDEX) {
+            entry = INDEX.get(name);
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.writtenAt() > MAX_AGE_MILLIS) {
+            remove(name);
+            misses.increment();
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(CACHE_DIR.resolve(name), StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            final byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            hits.increment();
+            return bytes;
+        } catch (final IOException e) {
+            //文件已被删除或损坏, 移出索引
+            log.warn("读取图片缓存 {} 失败: {}", name, e.getMessage());
+            remove(name);
+            misses.increment();
+            return null;
+        }
+    }
+
+    /**
+     * 在io线程池中写入缓存, 不阻塞调用线程
+     *
+     * @param key   url+请求头+处理参数
+     * @param bytes 图片字节
+     */
+    public static void putAsync(final String key, final byte[] bytes) {
+        IOThreadPool.executor().execute(() -> put(key, bytes));
+    }
+
+    /**
+     * 写入缓存, 先写临时文件再原子替换, 写入后按LRU淘汰超出上限的文件
+     *
+     * @param key   url+请求头+处理参数
+     * @param bytes 图片字节
+     */
+    public static void put(final String key, final byte[] bytes) {
+        if (bytes == null || bytes.length == 0 || bytes.length > MAX_TOTAL_BYTES / 4) {
+            return;
+        }
+        final String name = fileName(key);
+        try {
+            Files.createDirectories(CACHE_DIR);
+            final Path temp = Files.createTempFile(CACHE_DIR, name, ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, CACHE_DIR.resolve(name), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            log.warn("写入图片缓存 {} 失败: {}", name, e.getMessage());
+            return;
+        }
+        final List<String> evicted = new ArrayList<>();
+        synchronized (INDEX) {
+            final Entry previous = INDEX.put(name, new Entry(bytes.length, System.currentTimeMillis()));
+            totalBytes += bytes.length - (previous == null ? 0 : previous.size());
+            final Iterator<Map.Entry<String, Entry>> iterator = INDEX.entrySet().iterator();
+            while (totalBytes > MAX_TOTAL_BYTES && iterator.hasNext()) {
+                final Map.Entry<String, Entry> eldest = iterator.next();
+                if (eldest.getKey().equals(name)) {
+                    continue;
+                }
+                totalBytes -= eldest.getValue().size();
+                evicted.add(eldest.getKey());
+                iterator.remove();
+            }
+        }
+        evicted.forEach(ImageDiskCache::deleteFile);
+    }
+
+    private static void remove(final String name) {
+        synchronized (INDEX) {
+            final Entry entry = INDEX.remove(name);
+            if (entry != null) {
+                totalBytes -= entry.size();
+            }
+        }
+        deleteFile(name);
+    }
+
+    private static void deleteFile(final String name) {
+        try {
+            Files.deleteIfExists(CACHE_DIR.resolve(name));
+        } catch (final IOException e) {
+            log.warn("删除图片缓存 {} 失败: {}", name, e.getMessage());
+        }
+    }
+
+    private static String fileName(final String key) {
+        return DigestUtil.sha256Hex(key);
+    }
+
+    /**
+     * 启动时扫描缓存目录重建索引, 按修改时间排序作为初始的访问顺序, 修改时间作为写入时间, 并清理残留的临时文件
+     */
+    private static void loadIndex() {
+        final File[] files = CACHE_DIR.toFile().listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        synchronized (INDEX) {
+            for (final File file : files) {
+                if (file.getName().endsWith(".tmp")) {
+                    file.delete();
+                    continue;
+                }
+                INDEX.put(file.getName(), new Entry(file.length(), file.lastModified()));
+                totalBytes += file.length();
+            }
+        }
+        log.info("加载图片磁盘缓存 {} 个, 共 {} KB", INDEX.size(), totalBytes / 1024);
+    }
+
+    /**
+     * @return 缓存命中次数
+     */
+    public static long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return 缓存未命中次数
+     */
+    public static long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return 当前缓存总字节数
+     */
+    public static long getTotalBytes() {
+        synchronized (INDEX) {
+            return totalBytes;
+        }
+    }
+
+    /**
+     * 索引项
+     *
+     * @param size      文件大小
+     * @param writtenAt 写入时间
+     */
+    private record Entry(long size, long writtenAt) {
+    }
+}
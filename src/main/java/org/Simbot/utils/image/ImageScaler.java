@@ -0,0 +1,219 @@
+package org.Simbot.utils.image;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * @author ：ycvk
+ * @description ：图片缩放工具, 直接在int[]像素上多次减半(2x2均值)后再做一次双线性插值,
+ * 替代 Image.getScaledInstance(SCALE_SMOOTH) 的区域平均算法, 速度快且只额外分配目标大小的像素数组
+ * @date ：2026/10/18 18:40
+ */
+public final class ImageScaler {
+
+    //按目标字节数压缩时的最大尝试次数
+    private static final int MAX_FIT_ATTEMPTS = 4;
+
+    private ImageScaler() {
+    }
+
+    /**
+     * 按比例缩放图片
+     *
+     * @param source 原图
+     * @param scale  缩放比例, 0~1
+     * @return 缩放后的图片
+     */
+    public static BufferedImage scale(final BufferedImage source, final float scale) {
+        return scale(source, Math.round(source.getWidth() * scale), Math.round(source.getHeight() * scale));
+    }
+
+    /**
+     * 缩放图片到指定宽高, 只支持缩小, 目标大于原图时返回原图
+     *
+     * @param source       原图
+     * @param targetWidth  目标宽度
+     * @param targetHeight 目标高度
+     * @return 缩放后的图片, 透明图片为TYPE_INT_ARGB, 否则为TYPE_INT_RGB
+     */
+    public static BufferedImage scale(final BufferedImage source, final int targetWidth, final int targetHeight) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        final int dstWidth = Math.max(1, targetWidth);
+        final int dstHeight = Math.max(1, targetHeight);
+        if (dstWidth >= width && dstHeight >= height) {
+            return source;
+        }
+        final boolean alpha = source.getColorModel().hasAlpha();
+        int[] pixels = readPixels(source);
+        //先按2倍逐步缩小, 每一步都是精确的2x2均值, 避免一次性大比例插值产生锯齿
+        while (width / 2 >= dstWidth && height / 2 >= dstHeight) {
+            pixels = halve(pixels, width, height);
+            width /= 2;
+            height /= 2;
+        }
+        if (width != dstWidth || height != dstHeight) {
+            pixels = bilinear(pixels, width, height, dstWidth, dstHeight);
+        }
+        final BufferedImage result = new BufferedImage(dstWidth, dstHeight, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        final int[] data = ((DataBufferInt) result.getRaster().getDataBuffer()).getData();
+        System.arraycopy(pixels, 0, data, 0, data.length);
+        return result;
+    }
+
+    /**
+     * 缩放并编码图片, 使编码后的大小不超过目标字节数
+     *
+     * @param source   原图
+     * @param format   编码格式, 如jpg/png
+     * @param maxBytes 目标字节数
+     * @return 编码后的字节, 多次尝试后仍超出时返回最后一次的结果
+     * @throws IOException 编码失败
+     */
+    public static byte[] scaleToByteSize(final BufferedImage source, final String format, final long maxBytes) throws IOException {
+        byte[] encoded = encode(source, format);
+        double ratio = 1.0;
+        for (int i = 0; i < MAX_FIT_ATTEMPTS && encoded.length > maxBytes; i++) {
+            //编码后大小约与像素数成正比, 按面积比例估算边长比例, 并留出余量
+            ratio *= Math.sqrt((double) maxBytes / encoded.length) * 0.95;
+            encoded = encode(scale(source, (float) ratio), format);
+        }
+        return encoded;
+    }
+
+    /**
+     * 编码图片, 没有对应格式的编码器时退回png
+     *
+     * @param image  图片
+     * @param format 编码格式
+     * @return 编码后的字节
+     * @throws IOException 编码失败
+     */
+    public static byte[] encode(final BufferedImage image, final String format) throws IOException {
+        final BufferedImage output = "jpg".equals(format) && image.getColorModel().hasAlpha() ? dropAlpha(image) : image;
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            if (!ImageIO.write(output, format, out)) {
+                out.reset();
+                ImageIO.write(output, "png", out);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * 读取图片的ARGB像素, INT类型的图片直接复用底层数组, 避免逐像素转换
+     */
+    private static int[] readPixels(final BufferedImage image) {
+        final int type = image.getType();
+        if (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB) {
+            final int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            if (type == BufferedImage.TYPE_INT_ARGB) {
+                return data;
+            }
+            //TYPE_INT_RGB的alpha位未定义, 补为不透明
+            final int[] pixels = new int[data.length];
+            for (int i = 0; i < data.length; i++) {
+                pixels[i] = data[i] | 0xFF000000;
+            }
+            return pixels;
+        }
+        if (type == BufferedImage.TYPE_3BYTE_BGR) {
+            //ImageIO解码jpg的默认类型, 直接按BGR字节组装
+            final byte[] data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+            final int[] pixels = new int[image.getWidth() * image.getHeight()];
+            for (int i = 0, j = 0; i < pixels.length; i++, j += 3) {
+                pixels[i] = 0xFF000000 | (data[j + 2] & 0xFF) << 16 | (data[j + 1] & 0xFF) << 8 | data[j] & 0xFF;
+            }
+            return pixels;
+        }
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    /**
+     * 宽高各缩小一半, 每个目标像素取对应2x2像素的均值
+     */
+    private static int[] halve(final int[] src, final int width, final int height) {
+        final int dstWidth = width / 2;
+        final int dstHeight = height / 2;
+        final int[] dst = new int[dstWidth * dstHeight];
+        for (int y = 0; y < dstHeight; y++) {
+            final int row0 = y * 2 * width;
+            final int row1 = row0 + width;
+            for (int x = 0; x < dstWidth; x++) {
+                final int p00 = src[row0 + x * 2];
+                final int p01 = src[row0 + x * 2 + 1];
+                final int p10 = src[row1 + x * 2];
+                final int p11 = src[row1 + x * 2 + 1];
+                final int a = ((p00 >>> 24) + (p01 >>> 24) + (p10 >>> 24) + (p11 >>> 24) + 2) >> 2;
+                final int r = (((p00 >> 16) & 0xFF) + ((p01 >> 16) & 0xFF) + ((p10 >> 16) & 0xFF) + ((p11 >> 16) & 0xFF) + 2) >> 2;
+                final int g = (((p00 >> 8) & 0xFF) + ((p01 >> 8) & 0xFF) + ((p10 >> 8) & 0xFF) + ((p11 >> 8) & 0xFF) + 2) >> 2;
+                final int b = ((p00 & 0xFF) + (p01 & 0xFF) + (p10 & 0xFF) + (p11 & 0xFF) + 2) >> 2;
+                dst[y * dstWidth + x] = a << 24 | r << 16 | g << 8 | b;
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * 双线性插值缩放, 用于最后一步不足2倍的缩放
+     */
+    private static int[] bilinear(final int[] src, final int width, final int height, final int dstWidth, final int dstHeight) {
+        final int[] dst = new int[dstWidth * dstHeight];
+        final double xRatio = (double) width / dstWidth;
+        final double yRatio = (double) height / dstHeight;
+        //预先计算每一列的采样位置和权重
+        final int[] x0s = new int[dstWidth];
+        final int[] x1s = new int[dstWidth];
+        final int[] xWeights = new int[dstWidth];
+        for (int x = 0; x < dstWidth; x++) {
+            final double sx = Math.max(0, (x + 0.5) * xRatio - 0.5);
+            x0s[x] = Math.min(width - 1, (int) sx);
+            x1s[x] = Math.min(width - 1, x0s[x] + 1);
+            xWeights[x] = (int) ((sx - x0s[x]) * 256);
+        }
+        for (int y = 0; y < dstHeight; y++) {
+            final double sy = Math.max(0, (y + 0.5) * yRatio - 0.5);
+            final int y0 = Math.min(height - 1, (int) sy);
+            final int y1 = Math.min(height - 1, y0 + 1);
+            final int wy = (int) ((sy - y0) * 256);
+            final int row0 = y0 * width;
+            final int row1 = y1 * width;
+            for (int x = 0; x < dstWidth; x++) {
+                final int wx = xWeights[x];
+                final int top = lerp(src[row0 + x0s[x]], src[row0 + x1s[x]], wx);
+                final int bottom = lerp(src[row1 + x0s[x]], src[row1 + x1s[x]], wx);
+                dst[y * dstWidth + x] = lerp(top, bottom, wy);
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * 按0~256的权重对两个ARGB像素逐通道插值
+     */
+    private static int lerp(final int p0, final int p1, final int weight) {
+        if (weight == 0 || p0 == p1) {
+            return p0;
+        }
+        final int inverse = 256 - weight;
+        final int a = ((p0 >>> 24) * inverse + (p1 >>> 24) * weight) >> 8;
+        final int r = (((p0 >> 16) & 0xFF) * inverse + ((p1 >> 16) & 0xFF) * weight) >> 8;
+        final int g = (((p0 >> 8) & 0xFF) * inverse + ((p1 >> 8) & 0xFF) * weight) >> 8;
+        final int b = ((p0 & 0xFF) * inverse + (p1 & 0xFF) * weight) >> 8;
+        return a << 24 | r << 16 | g << 8 | b;
+    }
+
+    /**
+     * jpg不支持透明通道, 转为RGB
+     */
+    private static BufferedImage dropAlpha(final BufferedImage image) {
+        final BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        final int[] data = ((DataBufferInt) rgb.getRaster().getDataBuffer()).getData();
+        System.arraycopy(readPixels(image), 0, data, 0, data.length);
+        return rgb;
+    }
+}
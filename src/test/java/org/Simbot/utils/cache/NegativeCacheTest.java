@@ -0,0 +1,48 @@
+package org.Simbot.utils.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ：ycvk
+ * @description ：NegativeCache 记录、过期和按数据源隔离测试. 注册表是全局的, 每个用例使用独立的数据源名
+ * @date ：2026/10/19 01:35
+ */
+class NegativeCacheTest {
+
+    @Test
+    void markedQueryIsMissingUntilCleared() {
+        assertFalse(NegativeCache.isMissing("test-mark", "ABC-123"));
+        NegativeCache.markMissing("test-mark", "ABC-123");
+        assertTrue(NegativeCache.isMissing("test-mark", "ABC-123"));
+        NegativeCache.clear("test-mark", "ABC-123");
+        assertFalse(NegativeCache.isMissing("test-mark", "ABC-123"));
+    }
+
+    @Test
+    void sourcesAreIsolated() {
+        NegativeCache.markMissing("test-source-a", "ABC-123");
+        assertTrue(NegativeCache.isMissing("test-source-a", "ABC-123"));
+        assertFalse(NegativeCache.isMissing("test-source-b", "ABC-123"));
+        assertFalse(NegativeCache.isMissing("test-source-a", "ABC-124"));
+    }
+
+    @Test
+    void expiresAfterRegisteredTtl() throws InterruptedException {
+        NegativeCache.register("test-short", Duration.ofMillis(50));
+        NegativeCache.markMissing("test-short", "ABC-123");
+        assertTrue(NegativeCache.isMissing("test-short", "ABC-123"));
+        Thread.sleep(120);
+        assertFalse(NegativeCache.isMissing("test-short", "ABC-123"));
+    }
+
+    @Test
+    void zeroTtlDisablesSource() {
+        NegativeCache.register("test-off", Duration.ZERO);
+        NegativeCache.markMissing("test-off", "ABC-123");
+        assertFalse(NegativeCache.isMissing("test-off", "ABC-123"));
+    }
+}
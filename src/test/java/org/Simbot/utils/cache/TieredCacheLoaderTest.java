@@ -0,0 +1,158 @@
+package org.Simbot.utils.cache;
+
+import org.Simbot.config.caffeine.CacheRegion;
+import org.Simbot.config.caffeine.CaffeineCacheConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ：ycvk
+ * @description ：TieredCacheLoader 本地缓存命中、single-flight加载和失败处理测试, 不连接redis
+ * @date ：2026/10/19 01:25
+ */
+class TieredCacheLoaderTest {
+
+    private static RegionCache<String> localCache() {
+        final CacheRegion region = CacheRegion.builder().name("test").maximumBytes(1024 * 1024).build();
+        return new RegionCache<>(region, CaffeineCacheConfig.buildCache(region));
+    }
+
+    private static TieredCacheLoader<String, String> loader(final RegionCache<String> local, final Function<String, String> load) {
+        return TieredCacheLoader.<String, String>builder()
+                .name("test")
+                .local(local)
+                .decoder(String::toUpperCase)
+                .loader(load)
+                .build();
+    }
+
+    @Test
+    void loadsOnceThenServesFromLocalCache() {
+        final AtomicInteger calls = new AtomicInteger();
+        final TieredCacheLoader<String, String> loader = loader(localCache(), key -> {
+            calls.incrementAndGet();
+            return "value-" + key;
+        });
+        assertNull(loader.getIfPresent("a"));
+        assertEquals("VALUE-A", loader.get("a"));
+        assertEquals("VALUE-A", loader.get("a"));
+        assertEquals("VALUE-A", loader.getIfPresent("a"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void nullIsNotCached() {
+        final AtomicInteger calls = new AtomicInteger();
+        final TieredCacheLoader<String, String> loader = loader(localCache(), key -> {
+            calls.incrementAndGet();
+            return null;
+        });
+        assertNull(loader.get("a"));
+        assertNull(loader.get("a"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        final AtomicInteger calls = new AtomicInteger();
+        final TieredCacheLoader<String, String> loader = loader(localCache(), key -> key + calls.incrementAndGet());
+        assertEquals("A1", loader.get("a"));
+        loader.invalidate("a");
+        assertNull(loader.getIfPresent("a"));
+        assertEquals("A2", loader.get("a"));
+    }
+
+    @Test
+    void failedLoadPropagatesAndIsRetried() {
+        final AtomicInteger calls = new AtomicInteger();
+        final TieredCacheLoader<String, String> loader = loader(localCache(), key -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("upstream down");
+            }
+            return key;
+        });
+        assertThrows(IllegalStateException.class, () -> loader.get("a"));
+        //失败不会留下缓存或正在加载的记录
+        assertEquals("A", loader.get("a"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final TieredCacheLoader<String, String> loader = loader(localCache(), key -> {
+            calls.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return key;
+        });
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> loader.get("a")));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> loader.get("a")));
+            }
+            //等其余线程进入等待后再放行加载
+            Thread.sleep(100);
+            release.countDown();
+            for (final Future<String> result : results) {
+                assertEquals("A", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitersSeeTheSameExceptionAsTheLoader() throws Exception {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final TieredCacheLoader<String, String> loader = loader(localCache(), key -> {
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("upstream down");
+        });
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Throwable> leader = executor.submit(() -> catching(() -> loader.get("a")));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            final Future<Throwable> waiter = executor.submit(() -> catching(() -> loader.get("a")));
+            //等待线程进入等待后再放行加载
+            Thread.sleep(100);
+            release.countDown();
+            assertEquals(IllegalStateException.class, leader.get(5, TimeUnit.SECONDS).getClass());
+            assertEquals(IllegalStateException.class, waiter.get(5, TimeUnit.SECONDS).getClass());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Throwable catching(final Runnable runnable) {
+        try {
+            runnable.run();
+            return null;
+        } catch (final RuntimeException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.Simbot.utils.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ：ycvk
+ * @description ：CircuitBreaker 关闭->打开->半开状态切换测试
+ * @date ：2026/10/19 01:05
+ */
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    private static CircuitBreakerPolicy policy(final long openDurationMs) {
+        final CircuitBreakerPolicy policy = new CircuitBreakerPolicy();
+        policy.setHost("example.com");
+        policy.setWindowSize(4);
+        policy.setMinimumCalls(4);
+        policy.setFailureRateThreshold(50);
+        policy.setSlowCallDurationMs(1000);
+        policy.setSlowCallRateThreshold(75);
+        policy.setOpenDurationMs(openDurationMs);
+        policy.setHalfOpenCalls(2);
+        return policy;
+    }
+
+    private static void call(final CircuitBreaker breaker, final boolean failed, final long durationNanos) {
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(failed, durationNanos);
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        final CircuitBreaker breaker = new CircuitBreaker(policy(60_000));
+        call(breaker, true, FAST);
+        call(breaker, true, FAST);
+        call(breaker, true, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        final CircuitBreaker breaker = new CircuitBreaker(policy(60_000));
+        call(breaker, false, FAST);
+        call(breaker, false, FAST);
+        call(breaker, true, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        call(breaker, true, FAST);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void opensWhenSlowCallRateReachesThreshold() {
+        final CircuitBreaker breaker = new CircuitBreaker(policy(60_000));
+        call(breaker, false, FAST);
+        call(breaker, false, SLOW);
+        call(breaker, false, SLOW);
+        call(breaker, false, SLOW);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void slidingWindowForgetsOldFailures() {
+        final CircuitBreaker breaker = new CircuitBreaker(policy(60_000));
+        call(breaker, true, FAST);
+        call(breaker, false, FAST);
+        call(breaker, false, FAST);
+        call(breaker, false, FAST);
+        //窗口大小为4, 最早的失败被挤出后再失败一次, 失败率仍为1/4
+        call(breaker, true, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void halfOpenClosesAfterSuccessfulProbes() throws InterruptedException {
+        final CircuitBreaker breaker = new CircuitBreaker(policy(50));
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true, FAST);
+        }
+        assertFalse(breaker.tryAcquire());
+        Thread.sleep(80);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        //半开时只放行halfOpenCalls个探测请求
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onResult(false, FAST);
+        breaker.onResult(false, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void halfOpenReopensOnFailedProbe() throws InterruptedException {
+        final CircuitBreaker breaker = new CircuitBreaker(policy(50));
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true, FAST);
+        }
+        Thread.sleep(80);
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(true, FAST);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void ignoredProbeReturnsPermit() throws InterruptedException {
+        final CircuitBreaker breaker = new CircuitBreaker(policy(50));
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true, FAST);
+        }
+        Thread.sleep(80);
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        breaker.onIgnored();
+        assertTrue(breaker.tryAcquire());
+    }
+}
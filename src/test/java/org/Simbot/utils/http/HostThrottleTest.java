@@ -0,0 +1,76 @@
+package org.Simbot.utils.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ：ycvk
+ * @description ：HostThrottle 并发数和令牌桶限流测试
+ * @date ：2026/10/19 00:40
+ */
+class HostThrottleTest {
+
+    private static HostPolicy policy(final int maxConcurrent, final double permitsPerSecond, final int burst) {
+        final HostPolicy policy = new HostPolicy();
+        policy.setHost("example.com");
+        policy.setMaxConcurrent(maxConcurrent);
+        policy.setPermitsPerSecond(permitsPerSecond);
+        policy.setBurst(burst);
+        return policy;
+    }
+
+    @Test
+    void queuesBeyondMaxConcurrentUntilRelease() {
+        final HostThrottle throttle = new HostThrottle(policy(2, 0, 1));
+        final List<Integer> started = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final int id = i;
+            throttle.submit(() -> started.add(id));
+        }
+        //不限速率时前两个立即执行, 第三个排队
+        assertEquals(List.of(0, 1), started);
+        assertEquals(2, throttle.getActive());
+        assertEquals(1, throttle.getQueued());
+
+        throttle.release();
+        assertEquals(List.of(0, 1, 2), started);
+        assertEquals(2, throttle.getActive());
+        assertEquals(0, throttle.getQueued());
+    }
+
+    @Test
+    void tasksRunInSubmissionOrder() {
+        final HostThrottle throttle = new HostThrottle(policy(1, 0, 1));
+        final List<Integer> started = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final int id = i;
+            throttle.submit(() -> started.add(id));
+        }
+        for (int i = 0; i < 3; i++) {
+            throttle.release();
+        }
+        assertEquals(List.of(0, 1, 2, 3), started);
+    }
+
+    @Test
+    void burstIsAllowedThenRateLimited() throws InterruptedException {
+        final HostThrottle throttle = new HostThrottle(policy(0, 20, 2));
+        final CountDownLatch latch = new CountDownLatch(3);
+        final long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            throttle.submit(latch::countDown);
+        }
+        //令牌桶容量为2, 前两个立即执行, 第三个等待令牌补充(约50ms)后由调度线程执行
+        assertEquals(1, latch.getCount());
+        assertEquals(1, throttle.getQueued());
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(40));
+        assertEquals(0, throttle.getQueued());
+    }
+}
@@ -0,0 +1,63 @@
+package org.Simbot.utils.http;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ：ycvk
+ * @description ：RetryBudget 令牌存入、扣除、上限和保底补充测试
+ * @date ：2026/10/19 00:55
+ */
+class RetryBudgetTest {
+
+    private static void drain(final RetryBudget budget) {
+        while (budget.tryAcquireRetry()) {
+            //耗尽初始令牌
+        }
+    }
+
+    @Test
+    void startsFullAndDeniesWhenExhausted() {
+        final RetryBudget budget = new RetryBudget(0, 0, 3);
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+        assertEquals(3, budget.getGrantedRetries());
+        assertEquals(1, budget.getDeniedRetries());
+    }
+
+    @Test
+    void eachRequestDepositsRatio() {
+        final RetryBudget budget = new RetryBudget(0.5, 0, 10);
+        drain(budget);
+        budget.recordRequest();
+        //半个令牌不足以重试
+        assertFalse(budget.tryAcquireRetry());
+        budget.recordRequest();
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+    }
+
+    @Test
+    void balanceIsCappedAtMax() {
+        final RetryBudget budget = new RetryBudget(1, 0, 2);
+        drain(budget);
+        for (int i = 0; i < 10; i++) {
+            budget.recordRequest();
+        }
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+    }
+
+    @Test
+    void minRetriesPerSecondRefillsWithoutTraffic() throws InterruptedException {
+        final RetryBudget budget = new RetryBudget(0, 20, 1);
+        drain(budget);
+        //每秒保底20次, 约50ms补充一个令牌
+        Thread.sleep(120);
+        assertTrue(budget.tryAcquireRetry());
+    }
+}
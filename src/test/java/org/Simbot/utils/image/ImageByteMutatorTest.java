@@ -0,0 +1,82 @@
+package org.Simbot.utils.image;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ：ycvk
+ * @description ：ImageByteMutator 插入注释块后文件hash变化且像素不变
+ * @date ：2026/10/19 01:15
+ */
+class ImageByteMutatorTest {
+
+    private static byte[] encode(final String format, final int type) throws IOException {
+        final BufferedImage image = new BufferedImage(16, 16, type);
+        for (int y = 0; y < 16; y++) {
+            for (int x = 0; x < 16; x++) {
+                image.setRGB(x, y, (x * 16) << 16 | (y * 16) << 8 | 0x80);
+            }
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(ImageIO.write(image, format, out));
+        return out.toByteArray();
+    }
+
+    private static int[] pixels(final byte[] bytes) throws IOException {
+        final BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+        assertNotNull(image);
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    private static void assertMutatedKeepsPixels(final byte[] original) throws IOException {
+        final byte[] mutated = ImageByteMutator.mutate(original);
+        assertNotNull(mutated);
+        assertTrue(mutated.length > original.length);
+        assertFalse(Arrays.equals(original, mutated));
+        assertTrue(Arrays.equals(pixels(original), pixels(mutated)), "修改后解码的像素应与原图一致");
+        //每次插入的注释都是随机的
+        assertFalse(Arrays.equals(mutated, ImageByteMutator.mutate(original)));
+    }
+
+    @Test
+    void mutatesPng() throws IOException {
+        final byte[] original = encode("png", BufferedImage.TYPE_INT_ARGB);
+        assertMutatedKeepsPixels(original);
+        //IHDR之后是tEXt块, CRC覆盖块类型和数据
+        final byte[] mutated = ImageByteMutator.mutate(original);
+        final int offset = 8 + 25;
+        final int length = ByteBuffer.wrap(mutated, offset, 4).getInt();
+        assertEquals("tEXt", new String(mutated, offset + 4, 4, StandardCharsets.US_ASCII));
+        final CRC32 crc = new CRC32();
+        crc.update(mutated, offset + 4, 4 + length);
+        assertEquals((int) crc.getValue(), ByteBuffer.wrap(mutated, offset + 8 + length, 4).getInt());
+    }
+
+    @Test
+    void mutatesJpeg() throws IOException {
+        assertMutatedKeepsPixels(encode("jpg", BufferedImage.TYPE_INT_RGB));
+    }
+
+    @Test
+    void mutatesGif() throws IOException {
+        assertMutatedKeepsPixels(encode("gif", BufferedImage.TYPE_BYTE_INDEXED));
+    }
+
+    @Test
+    void returnsNullForUnsupportedFormats() throws IOException {
+        assertNull(ImageByteMutator.mutate(encode("bmp", BufferedImage.TYPE_INT_RGB)));
+        assertNull(ImageByteMutator.mutate(new byte[8]));
+        assertNull(ImageByteMutator.mutate(null));
+    }
+}